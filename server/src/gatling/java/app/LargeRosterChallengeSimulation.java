@@ -0,0 +1,132 @@
+package app;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Registers a roster of users, then repeatedly creates challenges with the whole roster and re-adds the
+ * roster through the modify endpoint, which exercises the batched insert and the membership lookup.
+ */
+public class LargeRosterChallengeSimulation extends Simulation {
+
+    private static final int ROSTER_SIZE = Integer.getInteger("rosterSize", 200);
+    private static final int OWNERS = Integer.getInteger("owners", 10);
+
+    private final Queue<String> rosterIds = new ConcurrentLinkedQueue<>();
+    private final Queue<String> rosterNames = new ConcurrentLinkedQueue<>();
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl("http://localhost:8080/api/v1")
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json");
+
+    private final ChainBuilder register =
+        feed(userGenerator())
+            .exec(
+                http("Register User")
+                    .post("/auth/register")
+                    .body(StringBody(
+                        """
+                            {
+                                "username": "#{username}",
+                                "email": "#{email}",
+                                "password": "#{password}"
+                            }
+                            """
+                    ))
+                    .check(
+                        status().is(200),
+                        jsonPath("$.accessToken").saveAs("accessToken"),
+                        jsonPath("$.userId").saveAs("userId")
+                    )
+            );
+
+    private final ScenarioBuilder roster = scenario("Register Roster")
+        .exec(register)
+        .exec(session -> {
+            rosterIds.add(session.getString("userId"));
+            rosterNames.add(session.getString("username"));
+            return session;
+        });
+
+    private final ScenarioBuilder owners = scenario("Large Roster Challenges")
+        .exec(register)
+        .exec(session -> session
+            .set("rosterIds", String.join(",", rosterIds))
+            .set("rosterNames", rosterNames.stream().map(name -> "\"" + name + "\"").collect(Collectors.joining(","))))
+        .repeat(5).on(
+            exec(
+                http("Create Large Challenge")
+                    .post("/users/#{userId}/challenges/")
+                    .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                    .body(StringBody(
+                        """
+                            {
+                                "title": "Team Challenge",
+                                "description": "Whole roster",
+                                "goal": 1000,
+                                "unit": "km",
+                                "participants": [#{rosterIds}]
+                            }
+                            """
+                    ))
+                    .check(status().is(200))
+            )
+        )
+        .exec(
+            http("Get Challenges")
+                .get("/users/#{userId}/challenges/")
+                .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                .check(
+                    status().is(200),
+                    jsonPath("$[0].id").saveAs("challengeId")
+                )
+        )
+        .exec(
+            http("Re-add Large Roster")
+                .post("/users/#{userId}/challenges/#{challengeId}/modify")
+                .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                .body(StringBody(
+                    """
+                        {
+                            "participants": [#{rosterNames}]
+                        }
+                        """
+                ))
+                .check(status().is(200))
+        );
+
+    {
+        setUp(
+            roster.injectOpen(rampUsers(ROSTER_SIZE).during(20))
+                .andThen(owners.injectOpen(atOnceUsers(OWNERS)))
+        ).protocols(httpProtocol)
+            .assertions(details("Create Large Challenge").responseTime().percentile(95.0).lt(1000));
+    }
+
+    private Iterator<Map<String, Object>> userGenerator() {
+        return Stream.generate(() -> {
+            String uuid = UUID.randomUUID().toString().substring(0, 8);
+            Map<String, Object> map = new HashMap<>();
+            map.put("username", uuid);
+            map.put("email", uuid + "@example.com");
+            map.put("password", "password");
+            return map;
+        }).iterator();
+    }
+}
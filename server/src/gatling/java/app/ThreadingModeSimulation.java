@@ -0,0 +1,136 @@
+package app;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Read-heavy activity and stats traffic for comparing the two threading modes at the same connection-pool size.
+ * Run it once against a server started with {@code VIRTUAL_THREADS=false} and once with {@code VIRTUAL_THREADS=true},
+ * keeping {@code SPRING_DATASOURCE_HIKARI_MAXIMUM_POOL_SIZE} the same, and pass {@code -Dmode=platform} or
+ * {@code -Dmode=virtual} so the two reports can be told apart. In virtual mode a 503 means the concurrency limiter
+ * turned the request away instead of letting it queue on the pool.
+ * <p>
+ * Results with Gatling 3.13.5, {@code -Dusers=100} and the default 120 s, against a pool of 10 connections, with the
+ * application (JDK 21.0.1), Postgres 16.4 and Gatling all sharing one vCPU, run in the order listed and with the
+ * application restarted before each run:
+ * <pre>
+ * Mode      Requests     KO  p50 ms  p95 ms  p99 ms  max ms  Throughput
+ * platform   202,771      0      17     295     466  11,363   1,252 rps
+ * virtual    298,860      0      34      95     166   2,432   1,966 rps
+ * platform   192,448      0      18     300     493  10,476   1,195 rps
+ * </pre>
+ * No request in the virtual run waited the 5 s it takes to be turned away, so it had no 503s. The default 500 users
+ * need more CPU than this for the bcrypt hashes of their registrations: registrations time out, and those users
+ * now leave the scenario instead of browsing without a user id.
+ */
+public class ThreadingModeSimulation extends Simulation {
+
+    private static final String MODE = System.getProperty("mode", "platform");
+    private static final int USERS = Integer.getInteger("users", 500);
+    private static final int DURATION_SECONDS = Integer.getInteger("durationSeconds", 120);
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl("http://localhost:8080/api/v1")
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json");
+
+    private final ChainBuilder register =
+        feed(userGenerator())
+            .exec(
+                http("Register User")
+                    .post("/auth/register")
+                    .body(StringBody(
+                        """
+                            {
+                                "username": "#{username}",
+                                "email": "#{email}",
+                                "password": "#{password}"
+                            }
+                            """
+                    ))
+                    .check(
+                        status().is(200),
+                        jsonPath("$.accessToken").saveAs("accessToken"),
+                        jsonPath("$.userId").saveAs("userId")
+                    )
+            )
+            .exec(
+                http("Add Activity")
+                    .post("/users/#{userId}/activities/")
+                    .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                    .body(StringBody(
+                        """
+                            {
+                                "title": "Running",
+                                "type": "DUMBBELL",
+                                "duration": 30
+                            }
+                            """
+                    ))
+                    .check(status().is(200))
+            );
+
+    private final ChainBuilder browse =
+        exec(
+            http("Get Activities [" + MODE + "]")
+                .get("/users/#{userId}/activities/")
+                .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                .check(status().in(200, 503))
+        )
+            .exec(
+                http("Get Recent Activities [" + MODE + "]")
+                    .get("/users/#{userId}/activities/recent")
+                    .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                    .check(status().in(200, 503))
+            )
+            .exec(
+                http("Get Stats [" + MODE + "]")
+                    .get("/users/#{userId}/stats/")
+                    .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                    .check(status().in(200, 503))
+            )
+            .exec(
+                http("Get Random Activity [" + MODE + "]")
+                    .get("/users/#{userId}/activities/random")
+                    .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                    .check(status().in(200, 503))
+            );
+
+    private final ScenarioBuilder scenario = scenario("Threading Mode [" + MODE + "]")
+        .exec(register)
+        .exitHereIfFailed()
+        .during(DURATION_SECONDS).on(browse);
+
+    {
+        setUp(
+            scenario.injectOpen(rampUsers(USERS).during(30))
+        ).protocols(httpProtocol)
+            .assertions(
+                global().responseTime().percentile(95.0).lt(1000),
+                global().successfulRequests().percent().gt(99.0)
+            );
+    }
+
+    private Iterator<Map<String, Object>> userGenerator() {
+        return Stream.generate(() -> {
+            String uuid = UUID.randomUUID().toString().substring(0, 8);
+            Map<String, Object> map = new HashMap<>();
+            map.put("username", uuid);
+            map.put("email", uuid + "@example.com");
+            map.put("password", "password");
+            return map;
+        }).iterator();
+    }
+}
@@ -0,0 +1,109 @@
+package app;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Types search keywords one character at a time against a database seeded with {@code seed-users.sql}
+ * (one million users), like a search box sending a request per keystroke.
+ * <p>
+ * "Search Users" results with Gatling 3.13.5 against one million seeded users, with the application (JDK 21.0.1),
+ * Postgres 16.4 and Gatling all sharing one vCPU:
+ * <pre>
+ * Run                                         Users  Requests  p50 ms  p95 ms  p99 ms  Throughput
+ * V3 text_pattern_ops index, sorted matches      50      4694    3131    5496    6828    14.4 rps
+ * V6 ordered index, prefix matches first         50      4842      58     414     673   138.3 rps
+ * V6 ordered index, prefix matches first         10       929       2      16     129    46.5 rps
+ * </pre>
+ * At 50 users the single vCPU is saturated, the 50 bcrypt registrations included, and both assertions fail; at
+ * 10 users both pass. Idle, a prefix search answers in under 10 ms and a substring-only search in under 45 ms.
+ */
+public class UserSearchSimulation extends Simulation {
+
+    private static final int USERS = Integer.getInteger("users", 50);
+    private static final List<String> KEYWORDS = List.of("anna", "john_12", "maria", "pet", "_4242", "sofia_9", "emm");
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl("http://localhost:8080/api/v1")
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json");
+
+    private final ChainBuilder register =
+        feed(userGenerator())
+            .exec(
+                http("Register User")
+                    .post("/auth/register")
+                    .body(StringBody(
+                        """
+                            {
+                                "username": "#{username}",
+                                "email": "#{email}",
+                                "password": "#{password}"
+                            }
+                            """
+                    ))
+                    .check(
+                        status().is(200),
+                        jsonPath("$.accessToken").saveAs("accessToken")
+                    )
+            );
+
+    private final ChainBuilder typeKeyword =
+        exec(session -> session.set("keyword", KEYWORDS.get(ThreadLocalRandom.current().nextInt(KEYWORDS.size()))))
+            .foreach(session -> prefixes(session.getString("keyword")), "query").on(
+                exec(
+                    http("Search Users")
+                        .get("/users/search")
+                        .queryParam("query", "#{query}")
+                        .header("Authorization", session -> "Bearer " + session.getString("accessToken"))
+                        .check(status().is(200))
+                )
+                    .pause(Duration.ofMillis(100))
+            );
+
+    private final ScenarioBuilder scenario = scenario("User Search")
+        .exec(register)
+        .repeat(20).on(typeKeyword);
+
+    {
+        setUp(
+            scenario.injectOpen(rampUsers(USERS).during(10))
+        ).protocols(httpProtocol)
+            .assertions(
+                details("Search Users").responseTime().percentile(95.0).lt(50),
+                details("Search Users").responseTime().percentile(99.0).lt(150)
+            );
+    }
+
+    private static List<String> prefixes(String keyword) {
+        return Stream.iterate(1, length -> length <= keyword.length(), length -> length + 1)
+            .map(length -> keyword.substring(0, length))
+            .toList();
+    }
+
+    private Iterator<Map<String, Object>> userGenerator() {
+        return Stream.generate(() -> {
+            String uuid = UUID.randomUUID().toString().substring(0, 8);
+            Map<String, Object> map = new HashMap<>();
+            map.put("username", uuid);
+            map.put("email", uuid + "@example.com");
+            map.put("password", "password");
+            return map;
+        }).iterator();
+    }
+}
@@ -0,0 +1,17 @@
+-- Seeds one million users for UserSearchSimulation. Run with psql against a migrated database:
+--   psql -h localhost -U psqlUser -d psqlDbName -f src/gatling/resources/seed-users.sql
+INSERT INTO _user (id, email, password, name, date_joined, role)
+SELECT base.max_id + n,
+       'seed' || n || '@example.com',
+       '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z9dFZ1Dv8DpWjsY8R7lJXkJ2',
+       (ARRAY['anna', 'john', 'maria', 'peter', 'olga', 'james', 'sofia', 'lucas', 'emma', 'noah',
+              'mia', 'liam', 'eva', 'adam', 'julia', 'ethan', 'zoe', 'oscar', 'lena', 'marek'])[1 + n % 20]
+           || '_' || n,
+       now(),
+       'USER'
+FROM generate_series(1, 1000000) AS n,
+     (SELECT coalesce(max(id), 0) AS max_id FROM _user) AS base;
+
+SELECT setval('_user_seq', (SELECT max(id) FROM _user) + 50);
+
+ANALYZE _user;
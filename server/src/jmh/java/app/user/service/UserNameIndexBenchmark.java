@@ -0,0 +1,66 @@
+package app.user.service;
+
+import app.friendship.service.FriendshipService;
+import app.user.entity.UserNameView;
+import app.user.entity.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Autocomplete over one million names, for a viewer with 500 friends, at one to four typed characters. Short
+ * prefixes match hundreds of thousands of names, so they show that only the first page of the range is read.
+ * The image lookup for the returned users is a database query and is stubbed out here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserNameIndexBenchmark {
+    private static final int USERS = 1_000_000;
+    private static final String[] FIRST_NAMES = {
+        "anna", "john", "maria", "peter", "olga", "james", "sofia", "lucas", "emma", "noah",
+        "mia", "liam", "eva", "adam", "julia", "ethan", "zoe", "oscar", "lena", "marek"
+    };
+
+    @Param({"j", "jo", "joh", "john_12"})
+    private String prefix;
+
+    private UserAutocompleteService autocompleteService;
+
+    @Setup
+    public void setUp() {
+        UserNameIndex index = new UserNameIndex(null, null);
+        for (int id = 1; id <= USERS; id++) {
+            index.put(new UserNameView(id, FIRST_NAMES[id % FIRST_NAMES.length] + "_" + id));
+        }
+
+        List<Integer> friends = IntStream.rangeClosed(1, 500).map(i -> i * 1_999).boxed().toList();
+        FriendshipService friendshipService = new FriendshipService(null, null) {
+            @Override
+            public List<Integer> getFriends(Integer userId) {
+                return friends;
+            }
+        };
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(),
+            new Class<?>[]{UserRepository.class},
+            (proxy, method, args) -> List.of()
+        );
+        autocompleteService = new UserAutocompleteService(index, friendshipService, userRepository);
+    }
+
+    @Benchmark
+    public List<UserAutocompleteResponse> autocomplete() {
+        return autocompleteService.autocomplete(1, prefix, UserAutocompleteService.DEFAULT_AUTOCOMPLETE_LIMIT);
+    }
+}
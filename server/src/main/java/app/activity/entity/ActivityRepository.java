@@ -1,9 +1,83 @@
 package app.activity.entity;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
-    List<Activity> findByUserId(Integer userId);
+    @Query("SELECT new app.activity.entity.ActivityView(a.id, a.title, a.type, a.duration, a.date) FROM Activity a WHERE a.user.id = :userId")
+    List<ActivityView> findViewsByUserId(@Param("userId") Integer userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new app.activity.entity.ActivityView(a.id, a.title, a.type, a.duration, a.date)
+        FROM Activity a
+        WHERE a.user.id = :userId
+        ORDER BY a.date, a.id
+        """)
+    Stream<ActivityView> streamViewsByUserId(@Param("userId") Integer userId);
+
+    @Query("""
+        SELECT new app.activity.entity.ActivityView(a.id, a.title, a.type, a.duration, a.date)
+        FROM Activity a
+        WHERE a.user.id = :userId
+        ORDER BY a.date DESC, a.id DESC
+        """)
+    List<ActivityView> findRecentViews(@Param("userId") Integer userId, Limit limit);
+
+    /**
+     * Continues {@link #findRecentViews} after the activity identified by {@code date} and {@code id}, so each
+     * page is a range scan of the (user_id, date, id) index instead of an offset.
+     */
+    @Query("""
+        SELECT new app.activity.entity.ActivityView(a.id, a.title, a.type, a.duration, a.date)
+        FROM Activity a
+        WHERE a.user.id = :userId
+          AND (a.date < :date OR (a.date = :date AND a.id < :id))
+        ORDER BY a.date DESC, a.id DESC
+        """)
+    List<ActivityView> findRecentViewsBefore(
+        @Param("userId") Integer userId,
+        @Param("date") ZonedDateTime date,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /**
+     * Returns the first recorded activity of each distinct title, ordered by title.
+     */
+    @Query("""
+        SELECT new app.activity.entity.ActivityTitleView(a.id, a.title, a.type)
+        FROM Activity a
+        WHERE a.id IN (SELECT MIN(b.id) FROM Activity b WHERE b.user.id = :userId GROUP BY b.title)
+        ORDER BY a.title
+        """)
+    List<ActivityTitleView> findTitleViews(@Param("userId") Integer userId);
+
+    /**
+     * Applies the new duration and date only if the row still holds the expected ones, so concurrent
+     * progress updates cannot overwrite each other. Returns the number of updated rows.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Activity a SET a.duration = :duration, a.date = :date
+        WHERE a.id = :id AND a.duration = :expectedDuration AND a.date = :expectedDate
+        """)
+    int compareAndSetProgress(
+        @Param("id") Long id,
+        @Param("expectedDuration") Duration expectedDuration,
+        @Param("expectedDate") ZonedDateTime expectedDate,
+        @Param("duration") Duration duration,
+        @Param("date") ZonedDateTime date
+    );
 }
@@ -0,0 +1,4 @@
+package app.activity.entity;
+
+public record ActivityTitleView(Long id, String title, Type type) {
+}
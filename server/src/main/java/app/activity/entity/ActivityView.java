@@ -0,0 +1,7 @@
+package app.activity.entity;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+public record ActivityView(Long id, String title, Type type, Duration duration, ZonedDateTime date) {
+}
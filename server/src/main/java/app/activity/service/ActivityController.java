@@ -8,8 +8,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/v1/users/{userId}/activities")
 @RequiredArgsConstructor
@@ -33,6 +38,26 @@ public class ActivityController {
         activityService.addActivity(userId, activityRequest);
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(
+        summary = "Import activities",
+        description = "Imports activities from an NDJSON body or a CSV body with a header row. Each row has a title, " +
+            "a type, a duration in minutes and an optional ISO-8601 date. Invalid rows are skipped and reported",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ActivityImportResponse importActivities(
+        @PathVariable Integer userId,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream body
+    ) throws IOException {
+        return activityService.importActivities(userId, body, ActivityImportFormat.of(contentType));
+    }
+
     @PostMapping("/{activityId}/progress")
     @Operation(
         summary = "Add progress to activity",
@@ -66,7 +91,7 @@ public class ActivityController {
     @GetMapping("/")
     @Operation(
         summary = "Get user activities",
-        description = "Retrieves all activities for the specified user",
+        description = "Retrieves the distinct activities and the most recent entries of the specified user",
         security = {@SecurityRequirement(name = "JwtAuth")}
     )
     @UserReadAccess
@@ -79,6 +104,26 @@ public class ActivityController {
         return activityService.getActivities(userId);
     }
 
+    @GetMapping("/recent")
+    @Operation(
+        summary = "Get recent activities",
+        description = "Retrieves a page of the user's activities, newest first. Pass the returned cursor as 'after' to get the next page",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @UserReadAccess
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Activities successfully retrieved"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public RecentActivitiesPage getRecentActivities(
+        @PathVariable Integer userId,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        return activityService.getRecentActivities(userId, after, limit);
+    }
+
     @GetMapping("/random")
     @Operation(
         summary = "Get random activity",
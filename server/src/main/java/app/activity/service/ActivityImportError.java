@@ -0,0 +1,10 @@
+package app.activity.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record ActivityImportError(
+    @Schema(requiredMode = REQUIRED) long line,
+    @Schema(requiredMode = REQUIRED) String message) {
+}
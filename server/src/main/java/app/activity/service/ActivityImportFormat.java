@@ -0,0 +1,23 @@
+package app.activity.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ActivityImportFormat {
+    NDJSON(MediaType.valueOf("application/x-ndjson")),
+    CSV(MediaType.valueOf("text/csv"));
+
+    private final MediaType mediaType;
+
+    ActivityImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ActivityImportFormat of(MediaType contentType) {
+        return Arrays.stream(values())
+            .filter(format -> format.mediaType.isCompatibleWith(contentType))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported import format: " + contentType));
+    }
+}
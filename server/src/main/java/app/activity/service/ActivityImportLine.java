@@ -0,0 +1,24 @@
+package app.activity.service;
+
+import app.activity.entity.Type;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * One parsed line of an import: either the validated activity fields or the reason the line was rejected.
+ */
+public record ActivityImportLine(long number, String title, Type type, Duration duration, ZonedDateTime date, String error) {
+
+    static ActivityImportLine valid(long number, String title, Type type, Duration duration, ZonedDateTime date) {
+        return new ActivityImportLine(number, title, type, duration, date, null);
+    }
+
+    static ActivityImportLine invalid(long number, String error) {
+        return new ActivityImportLine(number, null, null, null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,204 @@
+package app.activity.service;
+
+import app.activity.entity.Type;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Parses an activity import line by line, so only the current line of the body is held in memory.
+ * <p>
+ * NDJSON lines are objects and CSV files start with a header naming the columns; both use the fields
+ * {@code title}, {@code type}, {@code duration} (minutes) and an optional ISO-8601 {@code date}. Dates are
+ * stored in the application clock's zone, whatever offset the file used.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActivityImportReader {
+    private static final String TITLE = "title";
+    private static final String TYPE = "type";
+    private static final String DURATION = "duration";
+    private static final String DATE = "date";
+    /** Length of the {@code activities.title} column. */
+    static final int MAX_TITLE_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    /**
+     * Returns the non-blank lines of {@code body} in order. The stream reads lazily and has to be closed.
+     */
+    public Stream<ActivityImportLine> read(InputStream body, ActivityImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        AtomicLong lineNumber = new AtomicLong();
+
+        Map<String, Integer> csvColumns = format == ActivityImportFormat.CSV ? readCsvHeader(reader, lineNumber) : Map.of();
+        return reader.lines()
+            .map(line -> new NumberedLine(lineNumber.incrementAndGet(), line))
+            .filter(line -> !line.text().isBlank())
+            .map(line -> format == ActivityImportFormat.CSV ? parseCsv(line, csvColumns) : parseNdjson(line))
+            .onClose(() -> close(reader));
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader, AtomicLong lineNumber) throws IOException {
+        String header = reader.readLine();
+        lineNumber.incrementAndGet();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header.replace("\uFEFF", ""));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(List.of(TITLE, TYPE, DURATION))) {
+            throw new IllegalArgumentException("CSV header must contain title, type and duration columns");
+        }
+        return columns;
+    }
+
+    private ActivityImportLine parseCsv(NumberedLine line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line.text());
+        return toLine(
+            line.number(),
+            csvField(fields, columns.get(TITLE)),
+            csvField(fields, columns.get(TYPE)),
+            csvField(fields, columns.get(DURATION)),
+            csvField(fields, columns.get(DATE))
+        );
+    }
+
+    private ActivityImportLine parseNdjson(NumberedLine line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line.text());
+        } catch (JsonProcessingException e) {
+            return ActivityImportLine.invalid(line.number(), "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return ActivityImportLine.invalid(line.number(), "Expected a JSON object");
+        }
+        return toLine(line.number(), jsonField(node, TITLE), jsonField(node, TYPE), jsonField(node, DURATION), jsonField(node, DATE));
+    }
+
+    private ActivityImportLine toLine(long number, String title, String type, String duration, String date) {
+        if (title == null || title.isBlank()) {
+            return ActivityImportLine.invalid(number, "Missing title");
+        }
+        String activityTitle = title.trim();
+        if (activityTitle.length() > MAX_TITLE_LENGTH) {
+            return ActivityImportLine.invalid(number, "Title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+
+        Type activityType;
+        try {
+            activityType = Type.valueOf(type == null ? "" : type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ActivityImportLine.invalid(number, "Unknown type: " + type);
+        }
+
+        long minutes;
+        try {
+            minutes = Long.parseLong(duration == null ? "" : duration.trim());
+        } catch (NumberFormatException e) {
+            minutes = 0;
+        }
+        if (minutes <= 0) {
+            return ActivityImportLine.invalid(number, "Duration must be a positive number of minutes");
+        }
+
+        ZonedDateTime activityDate;
+        try {
+            activityDate = parseDate(date);
+        } catch (DateTimeParseException e) {
+            return ActivityImportLine.invalid(number, "Invalid date: " + date);
+        }
+
+        return ActivityImportLine.valid(number, activityTitle, activityType, Duration.ofMinutes(minutes), activityDate);
+    }
+
+    private ZonedDateTime parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return ZonedDateTime.now(clock);
+        }
+        String value = date.trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay(clock.getZone());
+        }
+        return ZonedDateTime.parse(value).withZoneSameInstant(clock.getZone());
+    }
+
+    private String jsonField(JsonNode node, String name) {
+        JsonNode field = node.get(name);
+        return field == null || field.isNull() ? null : field.asText();
+    }
+
+    private String csvField(List<String> fields, Integer column) {
+        return column == null || column >= fields.size() ? null : fields.get(column);
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with {@code ""} as an escaped quote.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record NumberedLine(long number, String text) {
+    }
+}
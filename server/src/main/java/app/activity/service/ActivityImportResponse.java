@@ -0,0 +1,13 @@
+package app.activity.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record ActivityImportResponse(
+    @Schema(requiredMode = REQUIRED) int imported,
+    @Schema(requiredMode = REQUIRED) int failed,
+    @Schema(requiredMode = REQUIRED, description = "Errors of the first rejected lines") List<ActivityImportError> errors) {
+}
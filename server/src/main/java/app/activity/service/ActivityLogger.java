@@ -3,6 +3,8 @@ package app.activity.service;
 import app.config.logging.BaseLogger;
 import org.slf4j.Logger;
 
+import java.time.Instant;
+
 import static app.activity.service.ActivityLogMessages.*;
 
 public final class ActivityLogger extends BaseLogger {
@@ -20,6 +22,15 @@ public final class ActivityLogger extends BaseLogger {
         logger.info(ACTIVITY_ADDED, activityTitle, username);
     }
 
+    public void logImportingActivities(Integer userId, ActivityImportFormat format) {
+        logger.info(IMPORTING_ACTIVITIES, format, userId);
+        logUserAction("IMPORT_ACTIVITIES", userId, "Format: " + format);
+    }
+
+    public void logActivitiesImported(int imported, int failed, Integer userId) {
+        logger.info(ACTIVITIES_IMPORTED, imported, failed, userId);
+    }
+
     public void logDeletingActivity(Long activityId, Integer userId) {
         logger.warn(DELETING_ACTIVITY, activityId, userId);
         logUserAction("DELETE_ACTIVITY", userId, "Activity ID: " + activityId);
@@ -37,11 +48,27 @@ public final class ActivityLogger extends BaseLogger {
         logger.info(PROGRESS_UPDATED, activityId, newDuration);
     }
 
+    public void logProgressConflict(Long activityId, int attempt) {
+        logger.debug(PROGRESS_CONFLICT, activityId, attempt);
+    }
+
+    public void logProgressConflictError(Long activityId, int attempts) {
+        logger.error(PROGRESS_CONFLICT_ERROR, activityId, attempts);
+    }
+
     public void logFetchingActivities(Integer userId) {
         logger.info(FETCHING_ACTIVITIES, userId);
         logUserAction("FETCH_ACTIVITIES", userId);
     }
 
+    public void logFetchingRecentActivities(Integer userId, String after, int limit) {
+        logger.debug(FETCHING_RECENT_ACTIVITIES, userId, after, limit);
+    }
+
+    public void logInvalidRecentLimit(int limit) {
+        logger.warn(INVALID_RECENT_LIMIT_ERROR, limit);
+    }
+
     public void logActivitiesReturned(int availableCount, int recentCount, Integer userId) {
         logger.debug(ACTIVITIES_RETURNED, availableCount, recentCount, userId);
     }
@@ -67,6 +94,10 @@ public final class ActivityLogger extends BaseLogger {
         logger.debug(RANDOM_ACTIVITY_CACHED, userId);
     }
 
+    public void logRandomActivityFallback() {
+        logger.debug(RANDOM_ACTIVITY_FALLBACK);
+    }
+
     public void logActivityNotFoundError(Long activityId) {
         logger.error(ACTIVITY_NOT_FOUND_ERROR, activityId);
         logNotFound("Activity", activityId);
@@ -85,6 +116,10 @@ public final class ActivityLogger extends BaseLogger {
         logger.error(EXTERNAL_API_ERROR + " URL: {}, Error: {}", apiUrl, e.getMessage());
     }
 
+    public void logExternalApiCircuitOpened(String apiUrl, int failures, Instant openUntil) {
+        logger.warn(EXTERNAL_API_CIRCUIT_OPENED, apiUrl, failures, openUntil);
+    }
+
     public void logCacheEviction(Integer userId) {
         logger.debug(CACHE_EVICTION, userId);
     }
@@ -116,6 +151,10 @@ public final class ActivityLogger extends BaseLogger {
         logPerformanceEnd("FETCH_ACTIVITIES[User:" + userId + "]", startTime);
     }
 
+    public void logActivityImportPerformance(Integer userId, long startTime) {
+        logPerformanceEnd("IMPORT_ACTIVITIES[User:" + userId + "]", startTime);
+    }
+
     public void logProgressUpdatePerformance(Long activityId, long startTime) {
         logPerformanceEnd("UPDATE_PROGRESS[Activity:" + activityId + "]", startTime);
     }
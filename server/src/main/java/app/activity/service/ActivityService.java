@@ -2,34 +2,52 @@ package app.activity.service;
 
 import app.activity.entity.Activity;
 import app.activity.entity.ActivityRepository;
+import app.activity.entity.ActivityTitleView;
+import app.activity.entity.ActivityView;
+import app.stats.service.StatsRollupService;
+import app.stats.service.StatsRollupService.RollupBatch;
 import app.stats.service.TimeFormatter;
 import app.user.entity.User;
 import app.user.entity.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.Clock;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ActivityService {
+    private static final int MAX_PROGRESS_ATTEMPTS = 5;
+    static final int DEFAULT_RECENT_LIMIT = 20;
+    static final int MAX_RECENT_LIMIT = 100;
+    static final int IMPORT_CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+
     private final ActivityRepository activityRepository;
     private final UserRepository userRepository;
     private final TimeFormatter timeFormatter;
+    private final StatsRollupService statsRollupService;
+    private final ActivityImportReader activityImportReader;
+    private final ActivitySuggestionProvider activitySuggestionProvider;
+    private final EntityManager entityManager;
     private final Clock clock;
     private final ActivityLogger activityLogger = new ActivityLogger(log);
 
+    @Transactional
     @CacheEvict(value = "statsCache", key = "#userId")
     public void addActivity(Integer userId, ActivityRequest activityRequest) {
         long startTime = System.currentTimeMillis();
@@ -41,29 +59,90 @@ public class ActivityService {
         
         long dbStartTime = System.currentTimeMillis();
         activityRepository.save(activity);
+        statsRollupService.recordActivity(activity);
         activityLogger.logDatabaseOperation("SAVE_ACTIVITY", userId, dbStartTime);
         
         activityLogger.logActivityAdded(activity.getTitle(), user.getUsername());
         activityLogger.logActivityAddPerformance(userId, startTime);
     }
 
+    /**
+     * Imports the activities of {@code body} while it is being read. Rows are saved in chunks that are flushed as
+     * JDBC batches and then detached, and the stats rollup is written once at the end. Invalid rows are skipped
+     * and reported by line number.
+     */
+    @Transactional
+    @CacheEvict(value = "statsCache", key = "#userId")
+    public ActivityImportResponse importActivities(Integer userId, InputStream body, ActivityImportFormat format) throws IOException {
+        long startTime = System.currentTimeMillis();
+        activityLogger.logImportingActivities(userId, format);
+
+        User user = findUser(userId);
+        RollupBatch rollup = statsRollupService.batch(userId);
+        List<Activity> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<ActivityImportError> errors = new ArrayList<>();
+        int imported = 0;
+        int failed = 0;
+
+        try (Stream<ActivityImportLine> lines = activityImportReader.read(body, format)) {
+            for (Iterator<ActivityImportLine> iterator = lines.iterator(); iterator.hasNext(); ) {
+                ActivityImportLine line = iterator.next();
+                if (!line.isValid()) {
+                    failed++;
+                    if (errors.size() < MAX_REPORTED_IMPORT_ERRORS) {
+                        errors.add(new ActivityImportError(line.number(), line.error()));
+                    }
+                    continue;
+                }
+
+                Activity activity = createActivity(line, user);
+                chunk.add(activity);
+                rollup.add(activity);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    imported += saveImportChunk(chunk, userId);
+                }
+            }
+        }
+        imported += saveImportChunk(chunk, userId);
+        rollup.flush();
+
+        activityLogger.logActivitiesImported(imported, failed, userId);
+        activityLogger.logActivityImportPerformance(userId, startTime);
+        return new ActivityImportResponse(imported, failed, errors);
+    }
+
+    @Transactional
     @CacheEvict(value = "statsCache", key = "#userId")
     public void addProgress(Long activityId, Long progressInMinutes, Integer userId) {
         long startTime = System.currentTimeMillis();
         activityLogger.logAddingProgress(progressInMinutes, activityId);
         activityLogger.logCacheEviction(userId);
 
-        Activity activity = findActivity(activityId);
-        Duration updatedDuration = updateActivityDuration(activity, progressInMinutes);
-        
-        long dbStartTime = System.currentTimeMillis();
-        activityRepository.save(activity);
-        activityLogger.logDatabaseOperation("UPDATE_ACTIVITY", userId, dbStartTime);
+        for (int attempt = 1; ; attempt++) {
+            Activity activity = findActivity(activityId);
+            Activity updated = withProgress(activity, progressInMinutes);
 
-        activityLogger.logProgressUpdated(activityId, timeFormatter.formatDuration(updatedDuration));
-        activityLogger.logProgressUpdatePerformance(activityId, startTime);
+            long dbStartTime = System.currentTimeMillis();
+            int updatedRows = activityRepository.compareAndSetProgress(
+                activityId, activity.getDuration(), activity.getDate(), updated.getDuration(), updated.getDate());
+            activityLogger.logDatabaseOperation("UPDATE_ACTIVITY", userId, dbStartTime);
+
+            if (updatedRows == 1) {
+                statsRollupService.retractActivity(activity);
+                statsRollupService.recordActivity(updated);
+                activityLogger.logProgressUpdated(activityId, timeFormatter.formatDuration(updated.getDuration()));
+                activityLogger.logProgressUpdatePerformance(activityId, startTime);
+                return;
+            }
+            if (attempt == MAX_PROGRESS_ATTEMPTS) {
+                activityLogger.logProgressConflictError(activityId, attempt);
+                throw new IllegalStateException("Activity was modified concurrently");
+            }
+            activityLogger.logProgressConflict(activityId, attempt);
+        }
     }
 
+    @Transactional
     @CacheEvict(value = "statsCache", key = "#userId")
     public void deleteActivity(Long activityId, Integer userId) {
         activityLogger.logDeletingActivity(activityId, userId);
@@ -73,47 +152,61 @@ public class ActivityService {
         
         long dbStartTime = System.currentTimeMillis();
         activityRepository.delete(activity);
+        statsRollupService.retractActivity(activity);
         activityLogger.logDatabaseOperation("DELETE_ACTIVITY", userId, dbStartTime);
         
         activityLogger.logActivityDeleted(activityId);
     }
 
+    @Transactional(readOnly = true)
     public UserActivityResponse getActivities(Integer userId) {
         long startTime = System.currentTimeMillis();
         activityLogger.logFetchingActivities(userId);
 
         long dbStartTime = System.currentTimeMillis();
-        List<Activity> activities = activityRepository.findByUserId(userId);
+        List<ActivityResponse> available = buildAvailableActivities(activityRepository.findTitleViews(userId));
+        List<RecentActivityResponse> recent = buildRecentActivities(
+            activityRepository.findRecentViews(userId, Limit.of(DEFAULT_RECENT_LIMIT)));
         activityLogger.logDatabaseOperation("FETCH_ACTIVITIES", userId, dbStartTime);
 
-        UserActivityResponse response = buildActivityResponse(activities, userId);
+        activityLogger.logActivitiesReturned(available.size(), recent.size(), userId);
         activityLogger.logActivityFetchPerformance(userId, startTime);
-        
-        return response;
+
+        return new UserActivityResponse(available, recent);
     }
 
-    public String getRandomActivity(Integer userId) {
-        long startTime = System.currentTimeMillis();
-        activityLogger.logFetchingRandomActivity(userId);
+    @Transactional(readOnly = true)
+    public RecentActivitiesPage getRecentActivities(Integer userId, String after, int limit) {
+        activityLogger.logFetchingRecentActivities(userId, after, limit);
+        if (limit < 1 || limit > MAX_RECENT_LIMIT) {
+            activityLogger.logInvalidRecentLimit(limit);
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RECENT_LIMIT);
+        }
+
+        long dbStartTime = System.currentTimeMillis();
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<ActivityView> views;
+        if (after == null) {
+            views = activityRepository.findRecentViews(userId, fetchLimit);
+        } else {
+            ActivityCursor cursor = ActivityCursor.decode(after);
+            views = activityRepository.findRecentViewsBefore(userId, cursor.date(), cursor.id(), fetchLimit);
+        }
+        activityLogger.logDatabaseOperation("FETCH_RECENT_ACTIVITIES", userId, dbStartTime);
 
-        String apiUrl = "https://bored-api.appbrewery.com/random";
-        RestTemplate restTemplate = new RestTemplate();
-        ObjectMapper mapper = new ObjectMapper();
-
-        try {
-            long apiStartTime = System.currentTimeMillis();
-            String fullJson = restTemplate.getForObject(apiUrl, String.class);
-            activityLogger.logExternalApiCall(apiUrl, apiStartTime);
-            
-            JsonNode rootNode = mapper.readTree(fullJson);
-            String activityName = rootNode.get("activity").asText();
-            
-            activityLogger.logRandomActivitySuccess(userId);
-            return activityName;
-        } catch (Exception e) {
-            activityLogger.logExternalApiError(apiUrl, e);
-            return "Could not fetch activity";
+        if (views.size() <= limit) {
+            return new RecentActivitiesPage(buildRecentActivities(views), null);
         }
+        List<ActivityView> page = views.subList(0, limit);
+        ActivityView last = page.get(limit - 1);
+        return new RecentActivitiesPage(buildRecentActivities(page), new ActivityCursor(last.date(), last.id()).encode());
+    }
+
+    public String getRandomActivity(Integer userId) {
+        activityLogger.logFetchingRandomActivity(userId);
+        String activityName = activitySuggestionProvider.next();
+        activityLogger.logRandomActivitySuccess(userId);
+        return activityName;
     }
 
     private Activity findActivity(Long activityId) {
@@ -144,46 +237,55 @@ public class ActivityService {
             .build();
     }
 
-    private Duration updateActivityDuration(Activity activity, Long progressInMinutes) {
-        Duration progress = Duration.ofMinutes(progressInMinutes);
-        Duration currentDuration = activity.getDuration();
-        Duration updatedDuration = currentDuration.plus(progress);
-        
-        activity.setDuration(updatedDuration);
-        activity.setDate(ZonedDateTime.now(clock));
-        
-        return updatedDuration;
+    private Activity createActivity(ActivityImportLine line, User user) {
+        return Activity.builder()
+            .title(line.title())
+            .type(line.type())
+            .duration(line.duration())
+            .date(line.date())
+            .user(user)
+            .build();
     }
 
-    private UserActivityResponse buildActivityResponse(List<Activity> activities, Integer userId) {
-        List<ActivityResponse> available = buildAvailableActivities(activities);
-        List<RecentActivityResponse> recent = buildRecentActivities(activities);
+    private int saveImportChunk(List<Activity> chunk, Integer userId) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        long dbStartTime = System.currentTimeMillis();
+        activityRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        activityLogger.logDatabaseOperation("IMPORT_ACTIVITIES", userId, dbStartTime);
 
-        activityLogger.logActivitiesReturned(available.size(), recent.size(), userId);
-        return new UserActivityResponse(available, recent);
+        int saved = chunk.size();
+        chunk.clear();
+        return saved;
     }
 
-    private List<ActivityResponse> buildAvailableActivities(List<Activity> activities) {
-        return activities.stream()
-            .collect(Collectors.toMap(
-                Activity::getTitle,
-                activity -> new ActivityResponse(activity.getId(), activity.getTitle(), activity.getType()),
-                (existing, replacement) -> existing
-            ))
-            .values()
-            .stream()
-            .sorted(Comparator.comparing(ActivityResponse::title))
+    private Activity withProgress(Activity activity, Long progressInMinutes) {
+        return Activity.builder()
+            .id(activity.getId())
+            .title(activity.getTitle())
+            .type(activity.getType())
+            .duration(activity.getDuration().plus(Duration.ofMinutes(progressInMinutes)))
+            .date(ZonedDateTime.now(clock))
+            .user(activity.getUser())
+            .build();
+    }
+
+    private List<ActivityResponse> buildAvailableActivities(List<ActivityTitleView> titles) {
+        return titles.stream()
+            .map(title -> new ActivityResponse(title.id(), title.title(), title.type()))
             .toList();
     }
 
-    private List<RecentActivityResponse> buildRecentActivities(List<Activity> activities) {
+    private List<RecentActivityResponse> buildRecentActivities(List<ActivityView> activities) {
         return activities.stream()
-            .sorted((a, b) -> b.getDate().compareTo(a.getDate()))
             .map(activity -> new RecentActivityResponse(
-                activity.getId(),
-                activity.getTitle(),
-                activity.getType(),
-                timeFormatter.formatDuration(activity.getDuration())
+                activity.id(),
+                activity.title(),
+                activity.type(),
+                timeFormatter.formatDuration(activity.duration())
             ))
             .toList();
     }
@@ -0,0 +1,181 @@
+package app.activity.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves random activity suggestions from memory.
+ * <p>
+ * {@link #refill()} runs in the background and tops up a small buffer from the suggestion API through one shared
+ * HTTP client with connect and read timeouts. After {@code failure-threshold} consecutive failures the circuit
+ * opens and the API is not called again until {@code open-duration} has passed; the first call after that decides
+ * whether it closes again. Whenever the buffer is empty, {@link #next()} answers from a bundled offline list.
+ * <p>
+ * The refill runs on its own thread rather than on the shared scheduler thread, so a slow API never delays other
+ * scheduled jobs such as the challenge event flush.
+ */
+@Slf4j
+@Component
+public class ActivitySuggestionProvider implements AutoCloseable {
+    private static final String FALLBACK_RESOURCE = "activity-suggestions.txt";
+
+    private final RestClient restClient;
+    private final String url;
+    private final Clock clock;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final BlockingQueue<String> buffer;
+    private final List<String> fallback;
+    private final ThreadPoolExecutor refillExecutor;
+    private final ActivityLogger activityLogger = new ActivityLogger(log);
+
+    private int consecutiveFailures;
+    private Instant openUntil = Instant.MIN;
+
+    public ActivitySuggestionProvider(
+        Clock clock,
+        @Value("${activities.suggestions.url:https://bored-api.appbrewery.com/random}") String url,
+        @Value("${activities.suggestions.connect-timeout:PT2S}") Duration connectTimeout,
+        @Value("${activities.suggestions.read-timeout:PT3S}") Duration readTimeout,
+        @Value("${activities.suggestions.buffer-size:20}") int bufferSize,
+        @Value("${activities.suggestions.failure-threshold:3}") int failureThreshold,
+        @Value("${activities.suggestions.open-duration:PT1M}") Duration openDuration
+    ) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .build());
+        requestFactory.setReadTimeout(readTimeout);
+
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.url = url;
+        this.clock = clock;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.fallback = loadFallback();
+        this.refillExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "activity-suggestions-refill");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+    }
+
+    public String next() {
+        String suggestion = buffer.poll();
+        if (suggestion != null) {
+            return suggestion;
+        }
+        activityLogger.logRandomActivityFallback();
+        return fallback.get(ThreadLocalRandom.current().nextInt(fallback.size()));
+    }
+
+    /**
+     * Hands a refill to the provider's own thread and returns at once. A trigger that arrives while the previous
+     * refill is still running is dropped.
+     */
+    @Scheduled(fixedDelayString = "${activities.suggestions.refill-interval-ms:5000}")
+    public void scheduleRefill() {
+        refillExecutor.execute(this::refill);
+    }
+
+    public synchronized void refill() {
+        while (buffer.remainingCapacity() > 0 && !isOpen()) {
+            String suggestion;
+            try {
+                suggestion = fetch();
+            } catch (RuntimeException e) {
+                recordFailure(e);
+                return;
+            }
+            consecutiveFailures = 0;
+            buffer.offer(suggestion);
+        }
+    }
+
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    boolean isOpen() {
+        return clock.instant().isBefore(openUntil);
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    private String fetch() {
+        long startTime = System.currentTimeMillis();
+        SuggestionResponse response = restClient.get()
+            .uri(url)
+            .retrieve()
+            .body(SuggestionResponse.class);
+        activityLogger.logExternalApiCall(url, startTime);
+
+        if (response == null || response.activity() == null || response.activity().isBlank()) {
+            throw new IllegalStateException("Suggestion API returned no activity");
+        }
+        return response.activity();
+    }
+
+    private void recordFailure(RuntimeException e) {
+        consecutiveFailures++;
+        activityLogger.logExternalApiError(url, e);
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = clock.instant().plus(openDuration);
+            activityLogger.logExternalApiCircuitOpened(url, consecutiveFailures, openUntil);
+        }
+    }
+
+    private static List<String> loadFallback() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new ClassPathResource(FALLBACK_RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> suggestions = reader.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .toList();
+            if (suggestions.isEmpty()) {
+                throw new IllegalStateException(FALLBACK_RESOURCE + " is empty");
+            }
+            return suggestions;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record SuggestionResponse(String activity) {
+    }
+}
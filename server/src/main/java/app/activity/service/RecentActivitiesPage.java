@@ -0,0 +1,12 @@
+package app.activity.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record RecentActivitiesPage(
+    @Schema(requiredMode = REQUIRED) List<RecentActivityResponse> activities,
+    @Schema(description = "Cursor for the next page, absent on the last page") String nextCursor) {
+}
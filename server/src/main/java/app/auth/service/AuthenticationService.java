@@ -6,6 +6,7 @@ import app.excpetions.UserAlreadyExists;
 import app.user.entity.Role;
 import app.user.entity.User;
 import app.user.entity.UserRepository;
+import app.user.service.UserNameIndex;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserNameIndex userNameIndex;
     private final AuthLogger authLogger = new AuthLogger(log);
 
     public AuthenticationResponse register(RegistrationRequest request) {
@@ -36,6 +38,7 @@ public class AuthenticationService {
 
         User user = createUser(request);
         repository.save(user);
+        userNameIndex.put(user);
         authLogger.logRegistrationSuccess(user.getId(), user.getEmail());
 
         AuthenticationResponse response = generateTokensForUser(user);
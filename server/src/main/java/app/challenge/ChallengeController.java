@@ -1,6 +1,8 @@
 package app.challenge;
 
 import app.challenge.service.ChallengeModificationRequest;
+import app.challenge.service.ChallengeProgressResponse;
+import app.challenge.service.ChallengeRankResponse;
 import app.challenge.service.ChallengeRequest;
 import app.challenge.service.ChallengeResponse;
 import app.challenge.service.ChallengeService;
@@ -12,7 +14,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -55,6 +59,38 @@ public class ChallengeController {
         return challengeService.getChallenges(userId);
     }
 
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream challenge events",
+        description = "Streams progress, leaderboard and completion changes of the user's challenges as Server-Sent Events",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @UserReadAccess
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public SseEmitter streamChallengeEvents(@PathVariable Integer userId) {
+        return challengeService.streamChallengeEvents(userId);
+    }
+
+    @GetMapping("/{challengeId}/rank")
+    @Operation(
+        summary = "Get user rank",
+        description = "Retrieves the user's position on the challenge leaderboard",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @UserReadAccess
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rank retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ChallengeRankResponse getRank(@PathVariable Integer userId, @PathVariable Long challengeId) {
+        return challengeService.getRank(userId, challengeId);
+    }
+
     @PostMapping("/{challengeId}/progress")
     @Operation(
         summary = "Update challenge progress",
@@ -74,6 +110,25 @@ public class ChallengeController {
         challengeService.updateProgress(userId, challengeId, progress);
     }
 
+    @PostMapping("/{challengeId}/progress/increment")
+    @Operation(
+        summary = "Increment challenge progress",
+        description = "Atomically adds the given amount to the user's progress and returns the new value",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Progress incremented successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ChallengeProgressResponse incrementProgress(
+        @PathVariable Integer userId,
+        @PathVariable Long challengeId,
+        @RequestParam Integer amount
+    ) {
+        return challengeService.incrementProgress(userId, challengeId, amount);
+    }
+
     @PostMapping("/{challengeId}/modify")
     @Operation(
         summary = "Modify challenge",
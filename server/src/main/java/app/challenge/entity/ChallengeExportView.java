@@ -0,0 +1,14 @@
+package app.challenge.entity;
+
+import java.time.ZonedDateTime;
+
+public record ChallengeExportView(
+    Long challengeId,
+    String title,
+    String description,
+    Integer goal,
+    String unit,
+    Integer progress,
+    ZonedDateTime createdAt
+) {
+}
@@ -0,0 +1,4 @@
+package app.challenge.entity;
+
+public record ChallengeParticipantView(Long challengeId, Integer userId, String userName, Integer progress) {
+}
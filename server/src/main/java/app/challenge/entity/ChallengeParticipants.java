@@ -12,7 +12,14 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "challenge_participants")
+@Table(
+    name = "challenge_participants",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_challenge_participants_user_challenge",
+        columnNames = {"user_id", "challenge_id"}
+    ),
+    indexes = @Index(name = "idx_challenge_participants_challenge_user", columnList = "challenge_id, user_id")
+)
 public class ChallengeParticipants {
     @Id
     @GeneratedValue
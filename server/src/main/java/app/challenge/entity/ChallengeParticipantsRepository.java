@@ -1,9 +1,19 @@
 package app.challenge.entity;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ChallengeParticipantsRepository extends JpaRepository<ChallengeParticipants, Long> {
 
@@ -13,7 +23,57 @@ public interface ChallengeParticipantsRepository extends JpaRepository<Challenge
 
     List<ChallengeParticipants> findByChallengeId(Long id);
 
-    boolean existsByUserIdAndChallengeId(Integer userId, Long challengeId);
-
     boolean existsByChallengeId(Long challengeId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new app.challenge.entity.ChallengeExportView(c.id, c.title, c.description, c.goal, c.unit, cp.progress, c.createdAt)
+        FROM ChallengeParticipants cp JOIN cp.challenge c
+        WHERE cp.user.id = :userId
+        ORDER BY c.id
+        """)
+    Stream<ChallengeExportView> streamExportViewsByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT cp.user.id FROM ChallengeParticipants cp WHERE cp.challenge.id = :challengeId AND cp.user.id IN :userIds")
+    Set<Integer> findUserIdsByChallengeIdAndUserIdIn(
+        @Param("challengeId") Long challengeId,
+        @Param("userIds") Collection<Integer> userIds
+    );
+
+    @Query("""
+        SELECT new app.challenge.entity.ChallengeParticipantView(cp.challenge.id, u.id, u.name, cp.progress)
+        FROM ChallengeParticipants cp JOIN cp.user u
+        WHERE cp.challenge.id IN :challengeIds
+        ORDER BY cp.challenge.id, cp.id
+        """)
+    List<ChallengeParticipantView> findViewsByChallengeIdIn(@Param("challengeIds") Collection<Long> challengeIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new app.challenge.entity.ChallengeParticipantView(cp.challenge.id, u.id, u.name, cp.progress)
+        FROM ChallengeParticipants cp JOIN cp.user u
+        """)
+    Stream<ChallengeParticipantView> streamAllViews();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ChallengeParticipants cp SET cp.progress = :progress WHERE cp.user.id = :userId AND cp.challenge.id = :challengeId")
+    int updateProgress(
+        @Param("userId") Integer userId,
+        @Param("challengeId") Long challengeId,
+        @Param("progress") Integer progress
+    );
+
+    @Transactional
+    @Query(value = """
+        UPDATE challenge_participants
+        SET progress = progress + :amount
+        WHERE user_id = :userId AND challenge_id = :challengeId
+        RETURNING progress
+        """, nativeQuery = true)
+    Optional<Integer> incrementProgress(
+        @Param("userId") Integer userId,
+        @Param("challengeId") Long challengeId,
+        @Param("amount") Integer amount
+    );
 }
@@ -1,6 +1,13 @@
 package app.challenge.entity;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ChallengeRepository extends JpaRepository<Challenge, Long> {
+
+    @Query("SELECT cp.challenge FROM ChallengeParticipants cp WHERE cp.user.id = :userId ORDER BY cp.challenge.id")
+    List<Challenge> findByParticipantUserId(@Param("userId") Integer userId);
 }
@@ -0,0 +1,11 @@
+package app.challenge.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record ChallengeCompletionEvent(
+    @Schema(requiredMode = REQUIRED) Long challengeId,
+    @Schema(requiredMode = REQUIRED) Boolean isCompleted
+) {
+}
@@ -0,0 +1,266 @@
+package app.challenge.service;
+
+import app.challenge.entity.Challenge;
+import app.challenge.entity.ChallengeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Fans challenge changes out to SSE subscribers.
+ * <p>
+ * {@link #publish(Long)} only marks a challenge as changed; {@link #flush()} runs on a fixed delay, reads the
+ * current state of every changed challenge once from {@link ChallengeLeaderboard} and sends only what differs
+ * from the last state sent. A burst of updates between two flushes therefore costs one read and at most one
+ * event of each type per challenge. A new subscriber first receives the current state of each of its challenges.
+ * <p>
+ * Sending is never done on the scheduler thread. Every subscriber has its own bounded queue of pending events that
+ * a small dedicated pool drains, one subscriber at a time per thread, so a client that stops reading only holds up
+ * its own events. A subscriber whose queue overflows is dropped instead of buffering without limit.
+ */
+@Slf4j
+@Component
+public class ChallengeEventHub implements AutoCloseable {
+    static final String PROGRESS_EVENT = "progress";
+    static final String LEADERBOARD_EVENT = "leaderboard";
+    static final String COMPLETION_EVENT = "completion";
+
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final int LEADERBOARD_SIZE = 3;
+
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeLeaderboard challengeLeaderboard;
+    private final Executor sendExecutor;
+    private final int maxPendingEvents;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, ChallengeState> lastSent = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ChallengeEventHub(
+        ChallengeRepository challengeRepository,
+        ChallengeLeaderboard challengeLeaderboard,
+        @Value("${challenges.events.sender-threads:2}") int senderThreads,
+        @Value("${challenges.events.max-pending-events:100}") int maxPendingEvents
+    ) {
+        this(challengeRepository, challengeLeaderboard, Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "challenge-events-sender");
+            thread.setDaemon(true);
+            return thread;
+        }), maxPendingEvents);
+    }
+
+    ChallengeEventHub(
+        ChallengeRepository challengeRepository,
+        ChallengeLeaderboard challengeLeaderboard,
+        Executor sendExecutor,
+        int maxPendingEvents
+    ) {
+        this.challengeRepository = challengeRepository;
+        this.challengeLeaderboard = challengeLeaderboard;
+        this.sendExecutor = sendExecutor;
+        this.maxPendingEvents = maxPendingEvents;
+    }
+
+    public SseEmitter subscribe(List<Challenge> challenges) {
+        List<Long> challengeIds = challenges.stream().map(Challenge::getId).toList();
+        Subscriber subscriber = new Subscriber(new SseEmitter(EMITTER_TIMEOUT_MS), challengeIds, maxPendingEvents);
+
+        for (Challenge challenge : challenges) {
+            ChallengeState state = lastSent.computeIfAbsent(
+                challenge.getId(), id -> currentState(id, challenge.getGoal()));
+            subscribers.computeIfAbsent(challenge.getId(), id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            snapshot(challenge.getId(), state).forEach((name, payload) -> enqueue(subscriber, name, payload));
+        }
+
+        Runnable unsubscribe = () -> unsubscribe(subscriber);
+        subscriber.emitter.onCompletion(unsubscribe);
+        subscriber.emitter.onTimeout(unsubscribe);
+        subscriber.emitter.onError(error -> unsubscribe.run());
+        return subscriber.emitter;
+    }
+
+    public void publish(Long challengeId) {
+        if (subscribers.containsKey(challengeId)) {
+            changed.add(challengeId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${challenges.events.flush-interval-ms:500}")
+    public void flush() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Long> challengeIds = new ArrayList<>(changed);
+        changed.removeAll(challengeIds);
+
+        Map<Long, Integer> goals = challengeRepository.findAllById(challengeIds).stream()
+            .collect(Collectors.toMap(Challenge::getId, Challenge::getGoal));
+
+        for (Long challengeId : challengeIds) {
+            Set<Subscriber> challengeSubscribers = subscribers.get(challengeId);
+            Integer goal = goals.get(challengeId);
+            if (challengeSubscribers == null || goal == null) {
+                continue;
+            }
+            ChallengeState current = currentState(challengeId, goal);
+            ChallengeState previous = lastSent.replace(challengeId, current);
+            if (previous == null) {
+                continue;
+            }
+            events(challengeId, previous, current).forEach((name, payload) ->
+                challengeSubscribers.forEach(subscriber -> enqueue(subscriber, name, payload)));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sendExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the events to send, keyed by event name, for the change from {@code previous} to {@code current}.
+     */
+    static Map<String, Object> events(Long challengeId, ChallengeState previous, ChallengeState current) {
+        Map<String, Object> events = new LinkedHashMap<>();
+        if (previous.totalProgress() != current.totalProgress()) {
+            events.put(PROGRESS_EVENT, new ChallengeProgressEvent(
+                challengeId, current.totalProgress(), current.totalProgress() - previous.totalProgress()));
+        }
+        if (!Objects.equals(previous.leaderboard(), current.leaderboard())) {
+            events.put(LEADERBOARD_EVENT, new ChallengeLeaderboardEvent(challengeId, current.leaderboard()));
+        }
+        if (previous.completed() != current.completed()) {
+            events.put(COMPLETION_EVENT, new ChallengeCompletionEvent(challengeId, current.completed()));
+        }
+        return events;
+    }
+
+    /**
+     * Returns every event for {@code state}, as sent to a new subscriber before any change.
+     */
+    static Map<String, Object> snapshot(Long challengeId, ChallengeState state) {
+        Map<String, Object> events = new LinkedHashMap<>();
+        events.put(PROGRESS_EVENT, new ChallengeProgressEvent(challengeId, state.totalProgress(), 0));
+        events.put(LEADERBOARD_EVENT, new ChallengeLeaderboardEvent(challengeId, state.leaderboard()));
+        events.put(COMPLETION_EVENT, new ChallengeCompletionEvent(challengeId, state.completed()));
+        return events;
+    }
+
+    private ChallengeState currentState(Long challengeId, Integer goal) {
+        int totalProgress = (int) challengeLeaderboard.totalProgress(challengeId);
+        return new ChallengeState(
+            totalProgress,
+            challengeLeaderboard.top(challengeId, LEADERBOARD_SIZE),
+            totalProgress >= goal
+        );
+    }
+
+    /**
+     * Queues an event for {@code subscriber} and makes sure a drain of its queue is running or scheduled.
+     */
+    private void enqueue(Subscriber subscriber, String name, Object payload) {
+        if (!subscriber.pending.offer(new PendingEvent(name, payload))) {
+            drop(subscriber, new IllegalStateException("More than " + maxPendingEvents + " events pending"));
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sendExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            PendingEvent event;
+            while ((event = subscriber.pending.poll()) != null) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event()
+                        .name(event.name())
+                        .data(event.payload(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.pending.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        log.debug("Dropping SSE subscriber of challenge IDs: {}: {}", subscriber.challengeIds, cause.getMessage());
+        unsubscribe(subscriber);
+        subscriber.pending.clear();
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.challengeIds.forEach(challengeId -> subscribers.computeIfPresent(challengeId, (id, current) -> {
+            current.remove(subscriber);
+            if (current.isEmpty()) {
+                lastSent.remove(id);
+                return null;
+            }
+            return current;
+        }));
+    }
+
+    /**
+     * Returns the events still waiting to be sent to the subscriber behind {@code emitter}.
+     */
+    List<PendingEvent> pending(SseEmitter emitter) {
+        return subscribers.values().stream()
+            .flatMap(Set::stream)
+            .filter(subscriber -> subscriber.emitter == emitter)
+            .findFirst()
+            .map(subscriber -> List.copyOf(subscriber.pending))
+            .orElse(List.of());
+    }
+
+    record ChallengeState(int totalProgress, List<LeaderboardEntry> leaderboard, boolean completed) {
+    }
+
+    record PendingEvent(String name, Object payload) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final List<Long> challengeIds;
+        private final BlockingQueue<PendingEvent> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, List<Long> challengeIds, int maxPendingEvents) {
+            this.emitter = emitter;
+            this.challengeIds = challengeIds;
+            this.pending = new ArrayBlockingQueue<>(maxPendingEvents);
+        }
+    }
+}
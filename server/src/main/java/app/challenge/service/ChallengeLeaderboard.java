@@ -0,0 +1,349 @@
+package app.challenge.service;
+
+import app.challenge.entity.ChallengeParticipantView;
+import app.challenge.entity.ChallengeParticipantsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory leaderboard per challenge, kept in step with {@code challenge_participants} by the service
+ * methods that change progress or membership.
+ * <p>
+ * Each board keeps its participants in a sorted {@code long[]} (progress descending, then user id) together
+ * with a running total, so top-K reads are a prefix copy and rank lookups a binary search. Boards are loaded
+ * once all singletons exist, before the web server starts taking requests, and lazily for challenges that have
+ * no board yet.
+ * <p>
+ * A rebuild streams the participants into new boards while the current ones keep serving. Writes made meanwhile
+ * are recorded and replayed onto the new boards before they replace the old ones, so none of them is lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChallengeLeaderboard implements SmartInitializingSingleton {
+    private final ChallengeParticipantsRepository challengeParticipantsRepository;
+    private final TransactionOperations transactionOperations;
+    /** Writes hold the read lock so they run concurrently; swapping in rebuilt boards holds the write lock. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<Long, Board> boards = new ConcurrentHashMap<>();
+    private Queue<Write> writesDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Board> loaded = new ConcurrentHashMap<>();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                try (Stream<ChallengeParticipantView> participants = challengeParticipantsRepository.streamAllViews()) {
+                    participants.forEach(participant -> loaded
+                        .computeIfAbsent(participant.challengeId(), id -> new Board(0))
+                        .load(participant));
+                }
+            });
+        } catch (RuntimeException e) {
+            stopRecordingWrites();
+            throw e;
+        }
+        loaded.values().forEach(Board::sort);
+
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild.forEach(write -> write.applyTo(loaded));
+            writesDuringRebuild = null;
+            boards = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt leaderboards for {} challenges", loaded.size());
+    }
+
+    /**
+     * Reads total, top entries and per-user progress of a challenge together. If the board differs from
+     * {@code participants}, because a write committed in between or the board drifted, the standings are
+     * computed from {@code participants} instead and the board is dropped, so the next read loads it again from
+     * the database. A response never mixes the database rows with a newer or older board.
+     */
+    public Standings standings(Long challengeId, List<ChallengeParticipantView> participants, int limit) {
+        Map<Long, Board> current = boards;
+        Board board = current.computeIfAbsent(challengeId, id -> Board.of(participants));
+        Standings standings = board.standings(limit);
+        if (standings.matches(participants)) {
+            return standings;
+        }
+        log.debug("Leaderboard of challenge {} is out of step with its participants - using the participant rows", challengeId);
+        current.remove(challengeId, board);
+        return Board.of(participants).standings(limit);
+    }
+
+    public List<LeaderboardEntry> top(Long challengeId, int limit) {
+        return board(challengeId).top(limit);
+    }
+
+    public long totalProgress(Long challengeId) {
+        return board(challengeId).totalProgress();
+    }
+
+    /**
+     * Returns the 1-based position of the user in the challenge, or 0 if the user is not participating.
+     */
+    public int rank(Long challengeId, Integer userId) {
+        return board(challengeId).rank(userId);
+    }
+
+    public int participantCount(Long challengeId) {
+        return board(challengeId).size();
+    }
+
+    public void setProgress(Long challengeId, Integer userId, Integer progress) {
+        write(challengeId, board -> board.set(userId, progress));
+    }
+
+    /**
+     * Applies the result of an increment. Increments only move progress up, so a smaller value than the one
+     * already on the board comes from an increment that finished earlier and is ignored.
+     */
+    public void raiseProgress(Long challengeId, Integer userId, Integer progress) {
+        write(challengeId, board -> board.raise(userId, progress));
+    }
+
+    public void removeParticipant(Long challengeId, Integer userId) {
+        write(challengeId, board -> board.remove(userId));
+    }
+
+    public void evict(Long challengeId) {
+        lock.readLock().lock();
+        try {
+            boards.compute(challengeId, (id, board) -> {
+                record(new Write(challengeId, null));
+                return null;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a change to a loaded board. It is recorded under the board's map entry, so the changes to one
+     * challenge are replayed in the order they were applied.
+     */
+    private void write(Long challengeId, Consumer<Board> change) {
+        lock.readLock().lock();
+        try {
+            boards.compute(challengeId, (id, board) -> {
+                if (board != null) {
+                    change.accept(board);
+                }
+                record(new Write(challengeId, change));
+                return board;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void record(Write write) {
+        Queue<Write> recorded = writesDuringRebuild;
+        if (recorded != null) {
+            recorded.add(write);
+        }
+    }
+
+    private void stopRecordingWrites() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Board board(Long challengeId) {
+        return boards.computeIfAbsent(challengeId,
+            id -> Board.of(challengeParticipantsRepository.findViewsByChallengeIdIn(List.of(id))));
+    }
+
+    public record Standings(long totalProgress, List<LeaderboardEntry> top, Map<Integer, Integer> progressByUser) {
+
+        public Integer progress(Integer userId) {
+            return progressByUser.get(userId);
+        }
+
+        boolean matches(List<ChallengeParticipantView> participants) {
+            return progressByUser.size() == participants.size()
+                && participants.stream().allMatch(participant ->
+                    Objects.equals(progressByUser.get(participant.userId()), Board.progressOf(participant)));
+        }
+    }
+
+    /**
+     * A change to one challenge's board; a {@code null} change drops the board.
+     */
+    private record Write(Long challengeId, Consumer<Board> change) {
+
+        void applyTo(Map<Long, Board> target) {
+            if (change == null) {
+                target.remove(challengeId);
+            } else {
+                target.computeIfPresent(challengeId, (id, board) -> {
+                    change.accept(board);
+                    return board;
+                });
+            }
+        }
+    }
+
+    static final class Board {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final Map<Integer, Integer> progressByUser = new HashMap<>();
+        private long[] keys;
+        private int size;
+        private long totalProgress;
+
+        private Board(int capacity) {
+            keys = new long[Math.max(capacity, INITIAL_CAPACITY)];
+        }
+
+        static Board of(List<ChallengeParticipantView> participants) {
+            Board board = new Board(participants.size());
+            participants.forEach(board::load);
+            board.sort();
+            return board;
+        }
+
+        /**
+         * Adds a participant without keeping the keys sorted; {@link #sort()} has to follow before the board is read.
+         */
+        void load(ChallengeParticipantView participant) {
+            int progress = progressOf(participant);
+            if (progressByUser.put(participant.userId(), progress) == null) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                keys[size++] = key(progress, participant.userId());
+                totalProgress += progress;
+            }
+        }
+
+        void sort() {
+            Arrays.sort(keys, 0, size);
+        }
+
+        static int progressOf(ChallengeParticipantView participant) {
+            return participant.progress() == null ? 0 : participant.progress();
+        }
+
+        synchronized void set(int userId, int progress) {
+            Integer previous = progressByUser.put(userId, progress);
+            if (previous != null) {
+                removeKey(key(previous, userId));
+                totalProgress -= previous;
+            }
+            insertKey(key(progress, userId));
+            totalProgress += progress;
+        }
+
+        synchronized void raise(int userId, int progress) {
+            Integer current = progressByUser.get(userId);
+            if (current == null || progress > current) {
+                set(userId, progress);
+            }
+        }
+
+        synchronized void remove(int userId) {
+            Integer previous = progressByUser.remove(userId);
+            if (previous != null) {
+                removeKey(key(previous, userId));
+                totalProgress -= previous;
+            }
+        }
+
+        synchronized List<LeaderboardEntry> top(int limit) {
+            int count = Math.min(limit, size);
+            List<LeaderboardEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new LeaderboardEntry(userIdOf(keys[i]), progressOf(keys[i])));
+            }
+            return entries;
+        }
+
+        synchronized Standings standings(int limit) {
+            return new Standings(totalProgress, top(limit), Map.copyOf(progressByUser));
+        }
+
+        synchronized int rank(int userId) {
+            Integer progress = progressByUser.get(userId);
+            if (progress == null) {
+                return 0;
+            }
+            return Arrays.binarySearch(keys, 0, size, key(progress, userId)) + 1;
+        }
+
+        synchronized long totalProgress() {
+            return totalProgress;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void insertKey(long key) {
+            int position = -Arrays.binarySearch(keys, 0, size, key) - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            keys[position] = key;
+            size++;
+        }
+
+        private void removeKey(long key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            size--;
+        }
+
+        /**
+         * Inverting the progress makes ascending key order mean descending progress; ties are broken by
+         * user id, which is kept unsigned in the low half.
+         */
+        private static long key(int progress, int userId) {
+            return ((long) ~progress) << 32 | (userId & 0xFFFFFFFFL);
+        }
+
+        private static int progressOf(long key) {
+            return ~(int) (key >> 32);
+        }
+
+        private static int userIdOf(long key) {
+            return (int) key;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package app.challenge.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record ChallengeLeaderboardEvent(
+    @Schema(requiredMode = REQUIRED) Long challengeId,
+    @Schema(requiredMode = REQUIRED) List<LeaderboardEntry> leaderboard
+) {
+}
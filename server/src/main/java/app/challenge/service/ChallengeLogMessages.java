@@ -9,6 +9,8 @@ public final class ChallengeLogMessages {
     public static final String PARTICIPANTS_ADDED = "Added {} participants to challenge ID: {}";
     public static final String FETCHING_CHALLENGES = "Fetching challenges for user ID: {}";
     public static final String UPDATING_PROGRESS = "Updating progress - User ID: {}, Challenge ID: {}, Progress: {}";
+    public static final String FETCHING_RANK = "Fetching rank - User ID: {}, Challenge ID: {}";
+    public static final String SUBSCRIBING_TO_CHALLENGES = "Subscribing to challenge events - User ID: {}, Challenges: {}";
     public static final String MODIFYING_CHALLENGE = "Modifying challenge ID: {}";
     public static final String CHALLENGE_UPDATED = "Challenge ID: {} updated successfully";
     public static final String DELETING_CHALLENGE = "Deleting challenge - User ID: {}, Challenge ID: {}";
@@ -16,7 +18,8 @@ public final class ChallengeLogMessages {
     public static final String CHALLENGE_DETAILS = "Challenge details - Title: {}, Participants: {}";
     public static final String NO_CHALLENGES_FOUND = "No challenges found for user ID: {}";
     public static final String CHALLENGES_FOUND = "Found {} challenges for user ID: {}";
-    public static final String PROGRESS_UPDATED = "Progress updated successfully for participant ID: {}";
+    public static final String INCREMENTING_PROGRESS = "Incrementing progress - User ID: {}, Challenge ID: {}, Amount: {}";
+    public static final String PROGRESS_UPDATED = "Progress updated successfully - User ID: {}, Challenge ID: {}, Progress: {}";
     public static final String MODIFICATION_DETAILS = "Modification details: {}";
     public static final String UPDATING_TITLE = "Updating title from '{}' to '{}'";
     public static final String UPDATING_DESCRIPTION = "Updating description";
@@ -29,6 +32,7 @@ public final class ChallengeLogMessages {
     public static final String CHALLENGE_RETAINED = "Challenge ID: {} retained (remaining participants exist)";
     public static final String PARTICIPANT_ADDED = "Added participant - User ID: {} to Challenge ID: {}";
     public static final String PARTICIPANTS_NOT_FOUND_ERROR = "Failed to add challenge - one or more participants not found";
+    public static final String INVALID_PROGRESS_AMOUNT_ERROR = "Invalid progress increment - User ID: {}, Challenge ID: {}, Amount: {}";
     public static final String PARTICIPANT_NOT_FOUND_ERROR = "Participant not found - User ID: {}, Challenge ID: {}";
     public static final String CHALLENGE_NOT_FOUND_ERROR = "Challenge not found - ID: {}";
     public static final String PARTICIPANT_MODIFICATION_ERROR = "Participant modification failed - one or more participants not found";
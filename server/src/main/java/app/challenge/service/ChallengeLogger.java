@@ -31,6 +31,18 @@ public final class ChallengeLogger extends BaseLogger {
         logger.info(UPDATING_PROGRESS, userId, challengeId, progress);
     }
 
+    public void logIncrementingProgress(Integer userId, Long challengeId, Integer amount) {
+        logger.info(INCREMENTING_PROGRESS, userId, challengeId, amount);
+    }
+
+    public void logFetchingRank(Integer userId, Long challengeId) {
+        logger.debug(FETCHING_RANK, userId, challengeId);
+    }
+
+    public void logSubscribingToChallenges(Integer userId, int count) {
+        logger.info(SUBSCRIBING_TO_CHALLENGES, userId, count);
+    }
+
     public void logModifyingChallenge(Long challengeId) {
         logger.info(MODIFYING_CHALLENGE, challengeId);
     }
@@ -59,8 +71,8 @@ public final class ChallengeLogger extends BaseLogger {
         logger.debug(CHALLENGES_FOUND, count, userId);
     }
 
-    public void logProgressUpdated(Long participantId) {
-        logger.debug(PROGRESS_UPDATED, participantId);
+    public void logProgressUpdated(Integer userId, Long challengeId, Integer progress) {
+        logger.debug(PROGRESS_UPDATED, userId, challengeId, progress);
     }
 
     public void logModificationDetails(Object modificationRequest) {
@@ -111,6 +123,10 @@ public final class ChallengeLogger extends BaseLogger {
         logger.error(PARTICIPANTS_NOT_FOUND_ERROR);
     }
 
+    public void logInvalidProgressAmountError(Integer userId, Long challengeId, Integer amount) {
+        logger.warn(INVALID_PROGRESS_AMOUNT_ERROR, userId, challengeId, amount);
+    }
+
     public void logParticipantNotFoundError(Integer userId, Long challengeId) {
         logger.error(PARTICIPANT_NOT_FOUND_ERROR, userId, challengeId);
     }
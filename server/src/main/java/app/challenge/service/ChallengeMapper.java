@@ -1,35 +1,60 @@
 package app.challenge.service;
 
 import app.challenge.entity.Challenge;
-import app.challenge.entity.ChallengeParticipants;
+import app.challenge.entity.ChallengeParticipantView;
 import app.challenge.entity.ChallengeParticipantsRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ChallengeMapper {
+    private static final int LEADERBOARD_SIZE = 3;
+
     private final ChallengeParticipantsRepository challengeParticipantsRepository;
+    private final ChallengeLeaderboard challengeLeaderboard;
 
     public ChallengeResponse mapToChallengeResponse(Challenge challenge) {
-        List<ChallengeParticipants> allParticipants = challengeParticipantsRepository.findByChallengeId(challenge.getId());
+        return mapToChallengeResponses(List.of(challenge)).get(0);
+    }
 
-        List<ParticipantResponse> participantResponses = allParticipants.stream()
-            .map(this::mapToParticipantResponse)
-            .collect(Collectors.toList());
+    /**
+     * Maps all challenges with a single participant query, whatever the number of challenges.
+     */
+    public List<ChallengeResponse> mapToChallengeResponses(List<Challenge> challenges) {
+        if (challenges.isEmpty()) {
+            return List.of();
+        }
 
-        int totalProgress = allParticipants.stream()
-            .mapToInt(ChallengeParticipants::getProgress)
-            .sum();
+        List<Long> challengeIds = challenges.stream()
+            .map(Challenge::getId)
+            .toList();
+        Map<Long, List<ChallengeParticipantView>> participantsByChallenge = challengeParticipantsRepository
+            .findViewsByChallengeIdIn(challengeIds)
+            .stream()
+            .collect(Collectors.groupingBy(ChallengeParticipantView::challengeId));
 
-        List<LeaderboardEntry> leaderboard = allParticipants.stream()
-            .sorted((a, b) -> Integer.compare(b.getProgress(), a.getProgress()))
-            .limit(3)
-            .map(p -> new LeaderboardEntry(p.getUser().getId(), p.getProgress()))
+        return challenges.stream()
+            .map(challenge -> mapToChallengeResponse(challenge, participantsByChallenge.getOrDefault(challenge.getId(), List.of())))
             .collect(Collectors.toList());
+    }
+
+    /**
+     * Participant progress, total and leaderboard all come from one {@link ChallengeLeaderboard.Standings}
+     * snapshot, which always matches the participant rows, so they agree with each other and with the database.
+     */
+    private ChallengeResponse mapToChallengeResponse(Challenge challenge, List<ChallengeParticipantView> allParticipants) {
+        ChallengeLeaderboard.Standings standings = challengeLeaderboard.standings(challenge.getId(), allParticipants, LEADERBOARD_SIZE);
+        List<ParticipantResponse> participantResponses = allParticipants.stream()
+            .map(participant -> mapToParticipantResponse(participant, standings.progress(participant.userId())))
+            .collect(Collectors.toList());
+
+        int totalProgress = (int) standings.totalProgress();
+        List<LeaderboardEntry> leaderboard = standings.top();
 
         boolean isCompleted = totalProgress >= challenge.getGoal();
 
@@ -46,11 +71,11 @@ public class ChallengeMapper {
         );
     }
 
-    private ParticipantResponse mapToParticipantResponse(ChallengeParticipants participant) {
+    private ParticipantResponse mapToParticipantResponse(ChallengeParticipantView participant, Integer progress) {
         return new ParticipantResponse(
-            participant.getUser().getName(),
-            participant.getUser().getId(),
-            participant.getProgress()
+            participant.userName(),
+            participant.userId(),
+            progress
         );
     }
 }
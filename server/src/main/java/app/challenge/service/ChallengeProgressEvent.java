@@ -0,0 +1,12 @@
+package app.challenge.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record ChallengeProgressEvent(
+    @Schema(requiredMode = REQUIRED) Long challengeId,
+    @Schema(requiredMode = REQUIRED) Integer totalProgress,
+    @Schema(requiredMode = REQUIRED) Integer delta
+) {
+}
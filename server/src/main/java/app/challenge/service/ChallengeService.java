@@ -9,12 +9,15 @@ import app.user.entity.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -25,13 +28,17 @@ public class ChallengeService {
     private static final String CHALLENGE_NOT_FOUND_MESSAGE = "Challenge not found";
     private static final String USER_NOT_PARTICIPATING_MESSAGE = "User %d isn't participating in challenge %d";
     private static final String USER_NOT_IN_CHALLENGE_MESSAGE = "User is not participating in this challenge";
+    private static final String INVALID_PROGRESS_AMOUNT_MESSAGE = "Progress increment must be positive";
     
     private final ChallengeRepository challengeRepository;
     private final ChallengeParticipantsRepository challengeParticipantsRepository;
     private final UserRepository userRepository;
     private final ChallengeMapper challengeMapper;
+    private final ChallengeLeaderboard challengeLeaderboard;
+    private final ChallengeEventHub challengeEventHub;
     private final ChallengeLogger challengeLogger = new ChallengeLogger(log);
 
+    @Transactional
     public void addChallenge(Integer userId, ChallengeRequest challengeRequest) {
         challengeLogger.logAddingChallenge(userId);
         challengeLogger.logChallengeDetails(challengeRequest.title(), challengeRequest.participants());
@@ -72,67 +79,117 @@ public class ChallengeService {
             .build();
     }
 
+    /**
+     * Saves all participants in one {@code saveAll} call so Hibernate can send the inserts as JDBC batches.
+     */
     private void addParticipantsToChallenge(List<User> participants, Challenge challenge) {
-        participants.forEach(user -> addParticipant(user, challenge));
-    }
+        if (participants.isEmpty()) {
+            return;
+        }
+        List<ChallengeParticipants> newParticipants = participants.stream()
+            .map(user -> ChallengeParticipants.builder()
+                .challenge(challenge)
+                .progress(0)
+                .user(user)
+                .build())
+            .toList();
 
-    private void addParticipant(User user, Challenge challenge) {
-        ChallengeParticipants participant = ChallengeParticipants.builder()
-            .challenge(challenge)
-            .progress(0)
-            .user(user)
-            .build();
+        challengeParticipantsRepository.saveAll(newParticipants);
+        newParticipants.forEach(participant -> challengeLogger.logParticipantAdded(participant.getUser().getId(), challenge.getId()));
+        afterCommit(() -> {
+            newParticipants.forEach(participant ->
+                challengeLeaderboard.setProgress(challenge.getId(), participant.getUser().getId(), participant.getProgress()));
+            challengeEventHub.publish(challenge.getId());
+        });
+    }
 
-        challengeParticipantsRepository.save(participant);
-        challengeLogger.logParticipantAdded(user.getId(), challenge.getId());
+    /**
+     * Runs leaderboard and event hub updates once the surrounding transaction has committed, so a rollback never
+     * leaves them showing participants or progress the database does not have. Without a transaction the
+     * write has already committed and the action runs straight away.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<ChallengeResponse> getChallenges(Integer userId) {
         challengeLogger.logFetchingChallenges(userId);
 
-        List<ChallengeParticipants> participantRecords = challengeParticipantsRepository.findByUserId(userId);
+        List<Challenge> challenges = challengeRepository.findByParticipantUserId(userId);
 
-        if (participantRecords.isEmpty()) {
+        if (challenges.isEmpty()) {
             challengeLogger.logNoChallengesFound(userId);
             return new ArrayList<>();
         }
 
-        List<Challenge> challenges = extractAndSortChallenges(participantRecords);
         challengeLogger.logChallengesFound(challenges.size(), userId);
-        return mapToResponses(challenges);
+        return challengeMapper.mapToChallengeResponses(challenges);
     }
 
-    private List<Challenge> extractAndSortChallenges(List<ChallengeParticipants> participantRecords) {
-        return participantRecords.stream()
-            .map(ChallengeParticipants::getChallenge)
-            .sorted(Comparator.comparingLong(Challenge::getId))
-            .toList();
+    public void updateProgress(Integer userId, Long challengeId, Integer progress) {
+        challengeLogger.logUpdatingProgress(userId, challengeId, progress);
+
+        if (challengeParticipantsRepository.updateProgress(userId, challengeId, progress) == 0) {
+            throw participantNotFound(userId, challengeId);
+        }
+        challengeLeaderboard.setProgress(challengeId, userId, progress);
+        challengeEventHub.publish(challengeId);
+        challengeLogger.logProgressUpdated(userId, challengeId, progress);
     }
 
-    private List<ChallengeResponse> mapToResponses(List<Challenge> challenges) {
-        return challenges.stream()
-            .map(challengeMapper::mapToChallengeResponse)
-            .collect(Collectors.toList());
+    public ChallengeProgressResponse incrementProgress(Integer userId, Long challengeId, Integer amount) {
+        challengeLogger.logIncrementingProgress(userId, challengeId, amount);
+
+        if (amount == null || amount <= 0) {
+            challengeLogger.logInvalidProgressAmountError(userId, challengeId, amount);
+            throw new IllegalArgumentException(INVALID_PROGRESS_AMOUNT_MESSAGE);
+        }
+
+        Integer progress = challengeParticipantsRepository.incrementProgress(userId, challengeId, amount)
+            .orElseThrow(() -> participantNotFound(userId, challengeId));
+        challengeLeaderboard.raiseProgress(challengeId, userId, progress);
+        challengeEventHub.publish(challengeId);
+        challengeLogger.logProgressUpdated(userId, challengeId, progress);
+        return new ChallengeProgressResponse(challengeId, progress);
     }
 
-    public void updateProgress(Integer userId, Long challengeId, Integer progress) {
-        challengeLogger.logUpdatingProgress(userId, challengeId, progress);
+    public ChallengeRankResponse getRank(Integer userId, Long challengeId) {
+        challengeLogger.logFetchingRank(userId, challengeId);
 
-        ChallengeParticipants participant = findParticipantOrThrow(userId, challengeId);
-        participant.setProgress(progress);
-        challengeParticipantsRepository.save(participant);
-        challengeLogger.logProgressUpdated(participant.getId());
+        int rank = challengeLeaderboard.rank(challengeId, userId);
+        if (rank == 0) {
+            throw participantNotFound(userId, challengeId);
+        }
+        return new ChallengeRankResponse(challengeId, rank, challengeLeaderboard.participantCount(challengeId));
     }
 
-    private ChallengeParticipants findParticipantOrThrow(Integer userId, Long challengeId) {
-        return challengeParticipantsRepository.findByUserIdAndChallengeId(userId, challengeId)
-            .orElseThrow(() -> {
-                challengeLogger.logParticipantNotFoundError(userId, challengeId);
-                return new RuntimeException(
-                    String.format(USER_NOT_PARTICIPATING_MESSAGE, userId, challengeId));
-            });
+    /**
+     * Subscribes to the challenges the user takes part in when the stream is opened; clients reconnect to
+     * pick up challenges joined afterwards.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter streamChallengeEvents(Integer userId) {
+        List<Challenge> challenges = challengeRepository.findByParticipantUserId(userId);
+        challengeLogger.logSubscribingToChallenges(userId, challenges.size());
+        return challengeEventHub.subscribe(challenges);
     }
 
+    private RuntimeException participantNotFound(Integer userId, Long challengeId) {
+        challengeLogger.logParticipantNotFoundError(userId, challengeId);
+        return new RuntimeException(String.format(USER_NOT_PARTICIPATING_MESSAGE, userId, challengeId));
+    }
+
+    @Transactional
     public void modifyChallenge(Long challengeId, ChallengeModificationRequest challengeModificationRequest) {
         challengeLogger.logModifyingChallenge(challengeId);
         challengeLogger.logModificationDetails(challengeModificationRequest);
@@ -141,6 +198,7 @@ public class ChallengeService {
         
         updateChallengeFields(challenge, challengeModificationRequest);
         challengeRepository.save(challenge);
+        afterCommit(() -> challengeEventHub.publish(challengeId));
         challengeLogger.logChallengeUpdated(challengeId);
 
         if (challengeModificationRequest.participants() != null) {
@@ -192,14 +250,17 @@ public class ChallengeService {
     }
 
     private void addNewParticipants(Challenge challenge, List<User> users) {
-        users.forEach(user -> {
-            boolean alreadyParticipating = challengeParticipantsRepository
-                .existsByUserIdAndChallengeId(user.getId(), challenge.getId());
-            if (!alreadyParticipating) {
-                challengeLogger.logAddingParticipant(user.getId());
-                addParticipant(user, challenge);
-            }
-        });
+        if (users.isEmpty()) {
+            return;
+        }
+        Set<Integer> existingIds = challengeParticipantsRepository.findUserIdsByChallengeIdAndUserIdIn(
+            challenge.getId(), users.stream().map(User::getId).toList());
+
+        List<User> newUsers = users.stream()
+            .filter(user -> !existingIds.contains(user.getId()))
+            .toList();
+        newUsers.forEach(user -> challengeLogger.logAddingParticipant(user.getId()));
+        addParticipantsToChallenge(newUsers, challenge);
     }
 
     public void deleteChallenge(Integer userId, Long challengeId) {
@@ -209,6 +270,8 @@ public class ChallengeService {
         ChallengeParticipants participant = findParticipantForDeletion(userId, challengeId);
 
         challengeParticipantsRepository.delete(participant);
+        challengeLeaderboard.removeParticipant(challengeId, userId);
+        challengeEventHub.publish(challengeId);
         challengeLogger.logParticipantRemoved(userId, challengeId);
         
         deleteChallengeIfNoParticipants(challengeId, challenge);
@@ -226,6 +289,7 @@ public class ChallengeService {
         boolean hasParticipants = challengeParticipantsRepository.existsByChallengeId(challengeId);
         if (!hasParticipants) {
             challengeRepository.delete(challenge);
+            challengeLeaderboard.evict(challengeId);
             challengeLogger.logChallengeDeleted(challengeId);
         } else {
             challengeLogger.logChallengeRetained(challengeId);
@@ -0,0 +1,74 @@
+package app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+@Configuration
+@RequiredArgsConstructor
+public class CacheConfig {
+    private static final String STATS_CACHE = "statsCache";
+    private static final String PRINCIPAL_CACHE = "principalCache";
+
+    private final Clock clock;
+
+    @Value("${cache.stats.maximum-size:10000}")
+    private long statsMaximumSize;
+
+    @Value("${cache.principal.maximum-size:10000}")
+    private long principalMaximumSize;
+
+    @Value("${cache.principal.ttl:PT5M}")
+    private Duration principalTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(STATS_CACHE, Caffeine.newBuilder()
+            .maximumSize(statsMaximumSize)
+            .expireAfter(new UntilNextDay(clock))
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(PRINCIPAL_CACHE, Caffeine.newBuilder()
+            .maximumSize(principalMaximumSize)
+            .expireAfterWrite(principalTtl)
+            .recordStats()
+            .build());
+        return cacheManager;
+    }
+
+    /**
+     * Expires entries at the next midnight of the application clock, so "today", "this week" and the
+     * current streak are never served from the previous day. Reads do not extend the lifetime.
+     */
+    @RequiredArgsConstructor
+    static class UntilNextDay implements Expiry<Object, Object> {
+        private final Clock clock;
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            ZonedDateTime now = ZonedDateTime.now(clock);
+            ZonedDateTime nextDay = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+            return Duration.between(now, nextDay).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
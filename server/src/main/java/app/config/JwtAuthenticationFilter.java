@@ -1,7 +1,8 @@
 package app.config;
 
-import app.user.entity.User;
+import app.user.entity.UserPrincipal;
 import app.user.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,29 +12,23 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final List<String> PERMIT_ALL_ENDPOINTS = List.of(
-        "/api/v1/auth/register",
-        "/api/v1/auth/authenticate",
-        "/api/v1/auth/refresh-token",
-        "/api/spec/**",
-        "/swagger-ui/**",
-        "/swagger-ui.html",
-        "/v3/api-docs/**"
-    );
     private final JwtService jwtService;
     private final UserService userService;
 
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return PublicEndpoints.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(
         @NonNull HttpServletRequest request,
@@ -42,32 +37,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userId;
-        if (PERMIT_ALL_ENDPOINTS.stream().anyMatch(endpoint ->
-            new AntPathRequestMatcher(endpoint).matches(request))) {
-            filterChain.doFilter(request, response);
-            return;
-        }
         if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
             response.setStatus(401);
             return;
         }
         jwt = authorizationHeader.substring(7);
         try {
-            userId = jwtService.extractUserId(jwt);
+            Claims claims = jwtService.parseVerifiedClaims(jwt);
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = this.userService.getUserById(Integer.valueOf(userId));
-                if (jwtService.isTokenValid(jwt)) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        user.getAuthorities()
-                    );
-                    authentication.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                UserPrincipal principal = this.userService.getPrincipal(Integer.valueOf(claims.getSubject()));
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.getAuthorities()
+                );
+                authentication.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
             response.setStatus(401);
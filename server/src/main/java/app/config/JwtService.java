@@ -3,13 +3,15 @@ package app.config;
 import app.friendship.service.FriendshipService;
 import app.user.entity.Role;
 import app.user.entity.User;
+import app.user.entity.UserPrincipal;
 import app.user.entity.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -22,19 +24,38 @@ import java.util.Objects;
 import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
     private final long ACCESS_TOKEN_VALIDITY = 60 * 60 * 1000;
     private final long REFRESH_TOKEN_VALIDITY = 10L * 24 * 60 * 60 * 1000;
     private final UserRepository userRepository;
     private final FriendshipService friendshipService;
-    @Value("${jwt.secret.key}")
-    private String SECRET_KEY;
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+
+    public JwtService(
+        UserRepository userRepository,
+        FriendshipService friendshipService,
+        @Value("${jwt.secret.key}") String secretKey
+    ) {
+        this.userRepository = userRepository;
+        this.friendshipService = friendshipService;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
 
     public String extractUserId(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Parses the token once, checking its signature and expiration.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseVerifiedClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
         final Claims claims = extractAllClaims(token);
         return claimResolver.apply(claims);
@@ -59,7 +80,7 @@ public class JwtService {
             .setSubject(String.valueOf(user.getId()))
             .setIssuedAt(new Date(System.currentTimeMillis()))
             .setExpiration(new Date(System.currentTimeMillis() + validity))
-            .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+            .signWith(signInKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
@@ -76,21 +97,11 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-            .parserBuilder()
-            .setSigningKey(getSignInKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parseVerifiedClaims(token);
     }
 
     public boolean hasAccess(Authentication authentication, Integer userId, String permission) {
-        User user = extractUser(authentication);
+        UserPrincipal user = extractPrincipal(authentication);
         return switch (permission) {
             case "ADMIN_ACCESS" -> isAdmin(user);
             case "USER_READ_ACCESS" -> areFriends(user, userId) || isCurrentUser(user, userId) || isAdmin(user);
@@ -99,20 +110,28 @@ public class JwtService {
         };
     }
 
-    private boolean isCurrentUser(User user, Integer userId) {
-        return Objects.equals(user.getId(), userId);
+    private boolean isCurrentUser(UserPrincipal user, Integer userId) {
+        return Objects.equals(user.id(), userId);
     }
 
-    private boolean areFriends(User user, Integer userId) {
-        return friendshipService.isFriend(user.getId(), userId);
+    private boolean areFriends(UserPrincipal user, Integer userId) {
+        return friendshipService.isFriend(user.id(), userId);
     }
 
-    private boolean isAdmin(User user) {
-        return user.getRole() == Role.ADMIN;
+    private boolean isAdmin(UserPrincipal user) {
+        return user.role() == Role.ADMIN;
     }
 
-    private User extractUser(Authentication authentication) {
+    private UserPrincipal extractPrincipal(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return UserPrincipal.of(user);
+        }
         String email = authentication.getName();
-        return userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        return userRepository.findByEmail(email)
+            .map(UserPrincipal::of)
+            .orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
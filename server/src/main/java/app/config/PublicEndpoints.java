@@ -0,0 +1,61 @@
+package app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoints reachable without a token, shared by {@link SecurityConfig} and {@link JwtAuthenticationFilter}.
+ * <p>
+ * Patterns are either exact paths or a base path followed by {@code /**}. Matching is a hash lookup of the
+ * path and of each of its parent segments, so it does not depend on the number of patterns.
+ */
+public final class PublicEndpoints {
+    private static final String WILDCARD_SUFFIX = "/**";
+
+    private static final List<String> PATTERNS = List.of(
+        "/api/v1/auth/register",
+        "/api/v1/auth/authenticate",
+        "/api/v1/auth/refresh-token",
+        "/api/spec/**",
+        "/swagger-ui/**",
+        "/swagger-ui.html",
+        "/v3/api-docs/**",
+        "/actuator/health"
+    );
+
+    private static final Set<String> EXACT_PATHS = PATTERNS.stream()
+        .filter(pattern -> !pattern.endsWith(WILDCARD_SUFFIX))
+        .collect(Collectors.toUnmodifiableSet());
+
+    private static final Set<String> WILDCARD_BASES = PATTERNS.stream()
+        .filter(pattern -> pattern.endsWith(WILDCARD_SUFFIX))
+        .map(pattern -> pattern.substring(0, pattern.length() - WILDCARD_SUFFIX.length()))
+        .collect(Collectors.toUnmodifiableSet());
+
+    private PublicEndpoints() {
+    }
+
+    public static String[] patterns() {
+        return PATTERNS.toArray(String[]::new);
+    }
+
+    public static boolean matches(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        return matches(pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo);
+    }
+
+    static boolean matches(String path) {
+        if (EXACT_PATHS.contains(path)) {
+            return true;
+        }
+        for (int end = path.length(); end > 0; end = path.lastIndexOf('/', end - 1)) {
+            if (WILDCARD_BASES.contains(path.substring(0, end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
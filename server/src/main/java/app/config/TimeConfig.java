@@ -1,9 +1,14 @@
 package app.config;
 
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Clock;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class TimeConfig {
@@ -12,4 +17,31 @@ public class TimeConfig {
     public Clock clock() {
         return Clock.systemDefaultZone();
     }
+
+    /**
+     * Exposes the clock's zone to migrations as {@code ${clockZone}}, so SQL that buckets timestamps into days
+     * agrees with the application.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer clockZonePlaceholder(Clock clock) {
+        return configuration -> {
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.put("clockZone", postgresZone(clock.getZone()));
+            configuration.placeholders(placeholders);
+        };
+    }
+
+    /**
+     * Region ids are shared with Postgres, but Postgres reads a bare offset POSIX-style, positive west of
+     * Greenwich, so offsets are written as {@code UTC} with the sign flipped.
+     */
+    static String postgresZone(ZoneId zone) {
+        ZoneId normalized = zone.normalized();
+        if (normalized instanceof ZoneOffset offset) {
+            return offset.getTotalSeconds() == 0
+                ? "UTC"
+                : "UTC" + ZoneOffset.ofTotalSeconds(-offset.getTotalSeconds()).getId();
+        }
+        return normalized.getId();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package app.excpetions;
+
+public class PasswordHashingOverloaded extends RuntimeException {
+    public PasswordHashingOverloaded() {
+        super("Too many sign-in requests, please retry shortly");
+    }
+}
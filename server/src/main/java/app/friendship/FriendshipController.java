@@ -5,6 +5,7 @@ import app.config.annotations.UserReadAccess;
 import app.friendship.entity.Friendship;
 import app.friendship.service.FriendshipRequest;
 import app.friendship.service.FriendshipService;
+import app.friendship.service.MutualFriendsResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -144,6 +145,42 @@ public class FriendshipController {
         return friendshipService.getStatuses(userId, receiverIds);
     }
 
+    @GetMapping("/suggestions")
+    @Operation(
+        summary = "Get friend suggestions",
+        description = "Ranks users who are not yet friends by the number of mutual friends",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public List<MutualFriendsResponse> getFriendSuggestions(
+        @PathVariable Integer userId,
+        @RequestParam(defaultValue = "10") Integer limit
+    ) {
+        return friendshipService.getFriendSuggestions(userId, limit);
+    }
+
+    @PostMapping("/mutual")
+    @Operation(
+        summary = "Count mutual friends",
+        description = "Returns the number of mutual friends between current user and each of the given users",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Mutual friend counts retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public List<MutualFriendsResponse> getMutualFriendCounts(
+        @PathVariable Integer userId,
+        @RequestBody List<FriendshipRequest> users
+    ) {
+        return friendshipService.getMutualFriendCounts(userId, users);
+    }
+
     @GetMapping("/status/{receiverId}")
     @Operation(
         summary = "Check friendship status",
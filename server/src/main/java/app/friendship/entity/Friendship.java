@@ -1,5 +1,6 @@
 package app.friendship.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -14,7 +15,10 @@ import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "friendships")
+@Table(name = "friendships", indexes = {
+    @Index(name = "uk_friendships_pair", columnList = "user_low_id, user_high_id", unique = true),
+    @Index(name = "idx_friendships_pair_reverse", columnList = "user_high_id, user_low_id")
+})
 public class Friendship {
 
     @EmbeddedId
@@ -25,4 +29,23 @@ public class Friendship {
     @Column(nullable = false)
     @Schema(requiredMode = REQUIRED)
     private FriendshipStatus status;
+
+    /**
+     * Smaller of the two user ids. Together with {@link #userHighId} it identifies the pair regardless of who
+     * sent the request, so there is at most one row per pair and lookups are a single index probe.
+     */
+    @JsonIgnore
+    @Column(name = "user_low_id", nullable = false)
+    private Integer userLowId;
+
+    @JsonIgnore
+    @Column(name = "user_high_id", nullable = false)
+    private Integer userHighId;
+
+    @PrePersist
+    @PreUpdate
+    void fillPair() {
+        userLowId = Math.min(id.getSenderId(), id.getReceiverId());
+        userHighId = Math.max(id.getSenderId(), id.getReceiverId());
+    }
 }
@@ -1,51 +1,58 @@
 package app.friendship.entity;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FriendshipRepository extends JpaRepository<Friendship, FriendshipKey> {
 
-    List<Friendship> findById_ReceiverIdAndStatus(Integer receiverId, FriendshipStatus status);
+    Optional<Friendship> findByUserLowIdAndUserHighId(Integer userLowId, Integer userHighId);
 
-    List<Friendship> findById_SenderIdAndStatus(Integer receiverId, FriendshipStatus status);
+    List<Friendship> findByUserLowIdAndUserHighIdIn(Integer userLowId, Collection<Integer> userHighIds);
 
-    List<Friendship> findByStatusAndId_SenderId(FriendshipStatus status, Integer senderId);
+    List<Friendship> findByUserHighIdAndUserLowIdIn(Integer userHighId, Collection<Integer> userLowIds);
 
-    List<Friendship> findByStatusAndId_ReceiverId(FriendshipStatus status, Integer receiverId);
+    default Optional<Friendship> findBetween(Integer userId1, Integer userId2) {
+        return findByUserLowIdAndUserHighId(Math.min(userId1, userId2), Math.max(userId1, userId2));
+    }
 
-    @Query("""
-            SELECT f FROM Friendship f 
-            WHERE f.status = :status 
-            AND ((f.id.senderId = :user1 AND f.id.receiverId = :user2) 
-                 OR (f.id.senderId = :user2 AND f.id.receiverId = :user1))
-        """)
-    List<Friendship> findByStatusAndSenderOrReceiver(
-        @Param("status") FriendshipStatus status,
-        @Param("user1") Integer user1,
-        @Param("user2") Integer user2
-    );
+    /**
+     * Looks up the rows between the user and each of the others with one probe of the pair index per side.
+     */
+    default List<Friendship> findBetween(Integer userId, Collection<Integer> otherIds) {
+        List<Integer> higherIds = otherIds.stream().filter(otherId -> otherId > userId).toList();
+        List<Integer> lowerIds = otherIds.stream().filter(otherId -> otherId < userId).toList();
+
+        List<Friendship> friendships = new ArrayList<>();
+        if (!higherIds.isEmpty()) {
+            friendships.addAll(findByUserLowIdAndUserHighIdIn(userId, higherIds));
+        }
+        if (!lowerIds.isEmpty()) {
+            friendships.addAll(findByUserHighIdAndUserLowIdIn(userId, lowerIds));
+        }
+        return friendships;
+    }
 
-    boolean existsById_SenderIdAndId_ReceiverId(Integer senderId, Integer receiverId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new app.friendship.entity.FriendshipView(f.id.senderId, f.id.receiverId, f.status) FROM Friendship f")
+    Stream<FriendshipView> streamAllViews();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("""
-            SELECT f FROM Friendship f 
-            WHERE (f.id.senderId = :user1 AND f.id.receiverId IN :user2) 
-               OR (f.id.senderId IN :user2 AND f.id.receiverId = :user1)
+            SELECT new app.friendship.entity.FriendshipView(f.id.senderId, f.id.receiverId, f.status)
+            FROM Friendship f
+            WHERE f.userLowId = :userId OR f.userHighId = :userId
         """)
-    List<Friendship> findBySenderAndReceiversOrReceiverAndSenders(
-        @Param("user1") Integer user1,
-        @Param("user2") List<Integer> user2
-    );
-
-    boolean existsById_SenderIdAndId_ReceiverIdAndStatus(
-            Integer senderId,
-            Integer receiverId,
-            FriendshipStatus status
-    );
-
+    Stream<FriendshipView> streamViewsByUserId(@Param("userId") Integer userId);
 }
@@ -0,0 +1,4 @@
+package app.friendship.entity;
+
+public record FriendshipView(Integer senderId, Integer receiverId, FriendshipStatus status) {
+}
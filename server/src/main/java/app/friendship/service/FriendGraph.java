@@ -0,0 +1,467 @@
+package app.friendship.service;
+
+import app.friendship.entity.FriendshipRepository;
+import app.friendship.entity.FriendshipStatus;
+import app.friendship.entity.FriendshipView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the {@code friendships} table, kept in step by the {@link FriendshipService} methods that
+ * write it.
+ * <p>
+ * Every user has up to three sorted {@code int} sets: accepted friends, incoming and outgoing pending requests.
+ * An accepted friendship is stored in both users' friend sets and a pending request in the sender's outgoing and
+ * the receiver's incoming set, so each edge costs two {@code int}s plus array slack. Lookups are binary searches
+ * under a read lock; writes take the write lock.
+ * <p>
+ * The graph is loaded once all singletons exist, before the web server starts taking requests. A rebuild streams
+ * id pairs into a new graph while the current one keeps serving; writes made meanwhile are applied to both, so
+ * none of them is lost when the new graph replaces the old one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendGraph implements SmartInitializingSingleton {
+    private static final int[] EMPTY = new int[0];
+    /** Friend lists read per suggestion request; keeps the work bounded for users with many friends. */
+    static final int MAX_SCANNED_FRIENDS = 1_000;
+    /** Friend-of-friend entries collected per suggestion request. */
+    static final int MAX_CANDIDATES = 200_000;
+    /** Users whose mutual friend count one request may ask for. */
+    static final int MAX_MUTUAL_COUNT_IDS = 500;
+    /** Map entry, boxed key, node record and its three set objects. */
+    private static final long NODE_OVERHEAD_BYTES = 32 + 16 + 24 + 3 * 24;
+
+    private final FriendshipRepository friendshipRepository;
+    private final TransactionOperations transactionOperations;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Graph graph = new Graph();
+    private List<Consumer<Graph>> writesDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Graph loaded = new Graph();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                try (Stream<FriendshipView> friendships = friendshipRepository.streamAllViews()) {
+                    friendships.forEach(loaded::load);
+                }
+            });
+        } catch (RuntimeException e) {
+            stopRecordingWrites();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild.forEach(write -> write.accept(loaded));
+            writesDuringRebuild = null;
+            graph = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long bytes = estimatedBytes();
+        long edges = loaded.acceptedEdges + loaded.pendingEdges;
+        log.info("Loaded friend graph - Users: {}, Accepted: {}, Pending: {}, Estimated size: {} bytes ({} bytes per 1M edges)",
+            loaded.nodes.size(), loaded.acceptedEdges, loaded.pendingEdges, bytes, edges == 0 ? 0 : bytes * 1_000_000 / edges);
+    }
+
+    public int[] friends(int userId) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId);
+            return node == null ? EMPTY : node.friends().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] incomingRequests(int userId) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId);
+            return node == null ? EMPTY : node.incoming().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] outgoingRequests(int userId) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId);
+            return node == null ? EMPTY : node.outgoing().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean areFriends(int userId1, int userId2) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId1);
+            return node != null && node.friends().contains(userId2);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether a pending request exists in either direction.
+     */
+    public boolean hasPendingRequest(int userId1, int userId2) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId1);
+            return node != null && (node.outgoing().contains(userId2) || node.incoming().contains(userId2));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the friends each of {@code otherIds} shares with the user, in the order given. At most
+     * {@link #MAX_MUTUAL_COUNT_IDS} ids are accepted, so one request cannot hold the read lock for an unbounded
+     * number of set intersections.
+     */
+    public int[] mutualFriendCounts(int userId, int[] otherIds) {
+        if (otherIds.length > MAX_MUTUAL_COUNT_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_MUTUAL_COUNT_IDS + " users can be compared at once");
+        }
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId);
+            int[] counts = new int[otherIds.length];
+            if (node == null) {
+                return counts;
+            }
+            for (int i = 0; i < otherIds.length; i++) {
+                Node other = graph.nodes.get(otherIds[i]);
+                counts[i] = other == null ? 0 : node.friends().intersectionSize(other.friends());
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks users who are neither friends of the user nor already asked by them, by the number of mutual friends
+     * and then by id. Friends-of-friends are gathered into one array, sorted and counted run by run; at most
+     * {@link #MAX_SCANNED_FRIENDS} friend lists and {@link #MAX_CANDIDATES} entries are read.
+     */
+    public List<MutualFriendsResponse> suggestions(int userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = graph.nodes.get(userId);
+            if (node == null || limit <= 0) {
+                return List.of();
+            }
+            int[] candidates = collectFriendsOfFriends(node);
+            Arrays.sort(candidates);
+
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+            int start = 0;
+            while (start < candidates.length) {
+                int candidate = candidates[start];
+                int end = start + 1;
+                while (end < candidates.length && candidates[end] == candidate) {
+                    end++;
+                }
+                if (candidate != userId && !node.friends().contains(candidate) && !node.outgoing().contains(candidate)) {
+                    best.add(rankKey(end - start, candidate));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                start = end;
+            }
+
+            List<MutualFriendsResponse> suggestions = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                long key = best.poll();
+                suggestions.add(new MutualFriendsResponse(Integer.MAX_VALUE - (int) key, (int) (key >>> 32)));
+            }
+            return suggestions.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void addRequest(int senderId, int receiverId) {
+        write(target -> target.addRequest(senderId, receiverId));
+    }
+
+    public void removeRequest(int senderId, int receiverId) {
+        write(target -> target.removeRequest(senderId, receiverId));
+    }
+
+    /**
+     * Drops pending requests in both directions and records the friendship.
+     */
+    public void addFriendship(int userId1, int userId2) {
+        write(target -> target.addFriendship(userId1, userId2));
+    }
+
+    public void removeFriendship(int userId1, int userId2) {
+        write(target -> target.removeFriendship(userId1, userId2));
+    }
+
+    public long edgeCount() {
+        lock.readLock().lock();
+        try {
+            return graph.acceptedEdges + graph.pendingEdges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximates the heap used by the graph on a 64-bit JVM with compressed references: the map entries and
+     * boxed keys, one node and three set objects per user, and the backing arrays at their current capacity.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long tableCapacity = Math.max(16, Integer.highestOneBit(Math.max(graph.nodes.size() * 4 / 3, 1)) << 1);
+            long bytes = 16 + 4 * tableCapacity;
+            for (Node node : graph.nodes.values()) {
+                bytes += NODE_OVERHEAD_BYTES;
+                bytes += node.friends().arrayBytes() + node.incoming().arrayBytes() + node.outgoing().arrayBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] collectFriendsOfFriends(Node node) {
+        int[] friends = node.friends().toArray();
+        int scanned = Math.min(friends.length, MAX_SCANNED_FRIENDS);
+        long total = 0;
+        for (int i = 0; i < scanned; i++) {
+            total += graph.nodes.get(friends[i]).friends().size();
+        }
+        int[] candidates = new int[(int) Math.min(total, MAX_CANDIDATES)];
+        int filled = 0;
+        for (int i = 0; i < scanned && filled < candidates.length; i++) {
+            filled += graph.nodes.get(friends[i]).friends().copyInto(candidates, filled);
+        }
+        return candidates;
+    }
+
+    /**
+     * Orders by mutual friend count, then by lower user id, as an ascending {@code long}.
+     */
+    private static long rankKey(int mutualFriends, int userId) {
+        return ((long) mutualFriends << 32) | (Integer.MAX_VALUE - userId);
+    }
+
+    /**
+     * Applies a change to the serving graph and, while a rebuild is running, records it for the graph being loaded.
+     * Every change is idempotent, so replaying one the load already saw in the database does nothing.
+     */
+    private void write(Consumer<Graph> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(graph);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopRecordingWrites() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nodes and edge counts. Not thread-safe; guarded by the graph lock once it is serving.
+     */
+    private static final class Graph {
+        private final Map<Integer, Node> nodes = new HashMap<>();
+        private long acceptedEdges;
+        private long pendingEdges;
+
+        void load(FriendshipView friendship) {
+            if (friendship.status() == FriendshipStatus.ACCEPTED) {
+                addFriendship(friendship.senderId(), friendship.receiverId());
+            } else {
+                addRequest(friendship.senderId(), friendship.receiverId());
+            }
+        }
+
+        void addRequest(int senderId, int receiverId) {
+            if (node(senderId).outgoing().add(receiverId)) {
+                node(receiverId).incoming().add(senderId);
+                pendingEdges++;
+            }
+        }
+
+        void removeRequest(int senderId, int receiverId) {
+            Node sender = nodes.get(senderId);
+            Node receiver = nodes.get(receiverId);
+            if (sender != null && receiver != null && sender.outgoing().remove(receiverId)) {
+                receiver.incoming().remove(senderId);
+                pendingEdges--;
+            }
+        }
+
+        void addFriendship(int userId1, int userId2) {
+            removeRequest(userId1, userId2);
+            removeRequest(userId2, userId1);
+            if (node(userId1).friends().add(userId2)) {
+                node(userId2).friends().add(userId1);
+                acceptedEdges++;
+            }
+        }
+
+        void removeFriendship(int userId1, int userId2) {
+            Node node1 = nodes.get(userId1);
+            Node node2 = nodes.get(userId2);
+            if (node1 != null && node2 != null && node1.friends().remove(userId2)) {
+                node2.friends().remove(userId1);
+                acceptedEdges--;
+            }
+        }
+
+        private Node node(int userId) {
+            return nodes.computeIfAbsent(userId, id -> new Node(new SortedIntSet(), new SortedIntSet(), new SortedIntSet()));
+        }
+    }
+
+    private record Node(SortedIntSet friends, SortedIntSet incoming, SortedIntSet outgoing) {
+    }
+
+    /**
+     * Growable sorted {@code int} array. Not thread-safe; guarded by the graph lock.
+     */
+    static final class SortedIntSet {
+        private int[] values = EMPTY;
+        private int size;
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        boolean add(int value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+            return true;
+        }
+
+        boolean remove(int value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        /**
+         * Copies as many values as fit into {@code target} from {@code offset} and returns how many were copied.
+         */
+        int copyInto(int[] target, int offset) {
+            int count = Math.min(size, target.length - offset);
+            System.arraycopy(values, 0, target, offset, count);
+            return count;
+        }
+
+        /**
+         * Merges both arrays when their sizes are close; otherwise binary-searches the smaller one's values in
+         * the larger, which keeps the cost near {@code small * log(large)} for very unequal friend counts.
+         */
+        int intersectionSize(SortedIntSet other) {
+            SortedIntSet small = size <= other.size ? this : other;
+            SortedIntSet large = small == this ? other : this;
+            if (small.size == 0) {
+                return 0;
+            }
+            int count = 0;
+            if ((long) small.size * (32 - Integer.numberOfLeadingZeros(large.size)) < small.size + large.size) {
+                int from = 0;
+                for (int i = 0; i < small.size; i++) {
+                    int position = Arrays.binarySearch(large.values, from, large.size, small.values[i]);
+                    if (position >= 0) {
+                        count++;
+                        from = position + 1;
+                    } else {
+                        from = -position - 1;
+                    }
+                }
+                return count;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < small.size && j < large.size) {
+                int difference = Integer.compare(small.values[i], large.values[j]);
+                if (difference == 0) {
+                    count++;
+                    i++;
+                    j++;
+                } else if (difference < 0) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        long arrayBytes() {
+            return values.length == 0 ? 0 : 16L + 4L * values.length;
+        }
+    }
+}
@@ -9,99 +9,85 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FriendshipService {
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final FriendshipRepository friendshipRepository;
+    private final FriendGraph friendGraph;
 
     public void sendFriendRequest(Integer senderId, Integer receiverId) {
         log.info("Attempting to send friend request from {} to {}", senderId, receiverId);
 
-        if (isFriendRequestExists(senderId, receiverId)) {
+        Optional<Friendship> existing = friendshipRepository.findBetween(senderId, receiverId);
+        if (existing.isPresent()) {
+            Friendship friendship = existing.get();
+            if (friendship.getStatus() == FriendshipStatus.PENDING && friendship.getId().getSenderId().equals(receiverId)) {
+                log.info("Found reciprocal request - auto-accepting friendship between {} and {}", receiverId, senderId);
+                acceptFriendRequest(receiverId, senderId);
+                return;
+            }
             log.debug("Friend request already exists from {} to {}", senderId, receiverId);
             return;
         }
 
-        if (isFriendRequestExists(receiverId, senderId)) {
-            log.info("Found reciprocal request - auto-accepting friendship between {} and {}", receiverId, senderId);
-            acceptFriendRequest(receiverId, senderId);
-            return;
-        }
-
         Friendship friendship = requestFriendship(senderId, receiverId);
         friendshipRepository.save(friendship);
+        friendGraph.addRequest(senderId, receiverId);
         log.info("New friend request created from {} to {}", senderId, receiverId);
     }
 
     public void acceptFriendRequest(Integer friend1Id, Integer friend2Id) {
         log.info("Accepting friend request between {} and {}", friend1Id, friend2Id);
 
-        List<Friendship> friendships = findFriendshipRequests(friend1Id, friend2Id, FriendshipStatus.PENDING);
+        Friendship accepted = findFriendship(friend1Id, friend2Id, FriendshipStatus.PENDING)
+            .orElseThrow(() -> {
+                log.error("No pending friendship request found between {} and {}", friend1Id, friend2Id);
+                return new IllegalArgumentException("Friendship request not found");
+            });
 
-        if (friendships.isEmpty()) {
-            log.error("No pending friendship request found between {} and {}", friend1Id, friend2Id);
-            throw new IllegalArgumentException("Friendship request not found");
-        }
-
-        if (friendships.size() == 2) {
-            log.debug("Found duplicate requests - removing redundant one");
-            friendshipRepository.delete(friendships.get(1));
-        }
-
-        Friendship accepted = friendships.get(0);
         accepted.setStatus(FriendshipStatus.ACCEPTED);
         friendshipRepository.save(accepted);
+        friendGraph.addFriendship(friend1Id, friend2Id);
         log.info("Friendship established between {} and {}", friend1Id, friend2Id);
     }
 
     public void removeFriend(Integer userId1, Integer userId2) {
         log.info("Removing friendship between {} and {}", userId1, userId2);
-        friendshipRepository.deleteAll(findFriendshipRequests(userId1, userId2, FriendshipStatus.ACCEPTED));
+        findFriendship(userId1, userId2, FriendshipStatus.ACCEPTED).ifPresent(friendshipRepository::delete);
+        friendGraph.removeFriendship(userId1, userId2);
         log.debug("Friendship records deleted");
     }
 
     public List<Integer> getPendingFriendRequests(Integer userId) {
         log.debug("Fetching pending friend requests for user {}", userId);
-        return friendshipRepository.findById_ReceiverIdAndStatus(userId, FriendshipStatus.PENDING).stream()
-            .map(Friendship::getId)
-            .map(FriendshipKey::getSenderId)
-            .toList();
+        return toList(friendGraph.incomingRequests(userId));
     }
 
     public List<Integer> getSentFriendRequests(Integer userId) {
         log.debug("Fetching sent friend requests by user {}", userId);
-        return friendshipRepository.findById_SenderIdAndStatus(userId, FriendshipStatus.PENDING).stream()
-            .map(Friendship::getId)
-            .map(FriendshipKey::getReceiverId)
-            .toList();
+        return toList(friendGraph.outgoingRequests(userId));
     }
 
     public List<Integer> getFriends(Integer userId) {
         log.debug("Fetching friends list for user {}", userId);
 
-        List<Integer> sent = friendshipRepository.findByStatusAndId_SenderId(FriendshipStatus.ACCEPTED, userId).stream()
-            .map(Friendship::getId)
-            .map(FriendshipKey::getReceiverId)
-            .toList();
-
-        List<Integer> received = friendshipRepository.findByStatusAndId_ReceiverId(FriendshipStatus.ACCEPTED, userId).stream()
-            .map(Friendship::getId)
-            .map(FriendshipKey::getSenderId)
-            .toList();
-
-        List<Integer> result = new ArrayList<>(sent);
-        result.addAll(received);
+        List<Integer> result = toList(friendGraph.friends(userId));
         log.debug("Found {} friends for user {}", result.size(), userId);
         return result;
     }
 
     public void cancelFriendRequest(Integer senderId, Integer receiverId) {
         log.info("Canceling friend request from {} to {}", senderId, receiverId);
-        friendshipRepository.deleteAll(findFriendshipRequests(senderId, receiverId, FriendshipStatus.PENDING));
-        friendshipRepository.deleteAll(findFriendshipRequests(receiverId, senderId, FriendshipStatus.PENDING));
+        findFriendship(senderId, receiverId, FriendshipStatus.PENDING).ifPresent(friendshipRepository::delete);
+        friendGraph.removeRequest(senderId, receiverId);
+        friendGraph.removeRequest(receiverId, senderId);
         log.debug("Friend request canceled");
     }
 
@@ -110,7 +96,7 @@ public class FriendshipService {
         List<Integer> userIds = userId2.stream()
             .map(FriendshipRequest::receiverId)
             .toList();
-        return friendshipRepository.findBySenderAndReceiversOrReceiverAndSenders(userId1, userIds);
+        return friendshipRepository.findBetween(userId1, userIds);
     }
 
     private Friendship requestFriendship(Integer senderId, Integer receiverId) {
@@ -124,25 +110,51 @@ public class FriendshipService {
             .build();
     }
 
-    private List<Friendship> findFriendshipRequests(Integer userId1, Integer userId2, FriendshipStatus status) {
-        log.trace("Finding friendship requests between {} and {} with status {}", userId1, userId2, status);
-        return friendshipRepository.findByStatusAndSenderOrReceiver(status, userId1, userId2);
-    }
-
-    private boolean isFriendRequestExists(Integer senderId, Integer receiverId) {
-        log.trace("Checking if friend request exists from {} to {}", senderId, receiverId);
-        return friendshipRepository.existsById_SenderIdAndId_ReceiverId(senderId, receiverId);
+    private Optional<Friendship> findFriendship(Integer userId1, Integer userId2, FriendshipStatus status) {
+        log.trace("Finding friendship between {} and {} with status {}", userId1, userId2, status);
+        return friendshipRepository.findBetween(userId1, userId2)
+            .filter(friendship -> friendship.getStatus() == status);
     }
 
     public boolean isFriend(Integer senderId, Integer receiverId) {
         log.debug("Checking if {} and {} are friends", senderId, receiverId);
-        return friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(senderId, receiverId, FriendshipStatus.ACCEPTED) ||
-            friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(receiverId, senderId, FriendshipStatus.ACCEPTED);
+        return friendGraph.areFriends(senderId, receiverId);
     }
 
     public boolean hasPendingRequest(Integer senderId, Integer receiverId) {
         log.debug("Checking pending requests between {} and {}", senderId, receiverId);
-        return friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(senderId, receiverId, FriendshipStatus.PENDING) ||
-            friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(receiverId, senderId, FriendshipStatus.PENDING);
+        return friendGraph.hasPendingRequest(senderId, receiverId);
+    }
+
+    public List<MutualFriendsResponse> getFriendSuggestions(Integer userId, Integer limit) {
+        log.debug("Fetching friend suggestions for user {} with limit {}", userId, limit);
+        if (limit == null || limit <= 0 || limit > MAX_SUGGESTIONS) {
+            log.error("Invalid suggestion limit {} requested by user {}", limit, userId);
+            throw new IllegalArgumentException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return friendGraph.suggestions(userId, limit);
+    }
+
+    public List<MutualFriendsResponse> getMutualFriendCounts(Integer userId, List<FriendshipRequest> users) {
+        log.debug("Counting mutual friends between {} and {} users", userId, users.size());
+        if (users.size() > FriendGraph.MAX_MUTUAL_COUNT_IDS) {
+            log.error("Too many users ({}) in mutual friend request by user {}", users.size(), userId);
+            throw new IllegalArgumentException(
+                "At most " + FriendGraph.MAX_MUTUAL_COUNT_IDS + " users can be compared at once");
+        }
+        int[] otherIds = users.stream()
+            .mapToInt(FriendshipRequest::receiverId)
+            .toArray();
+        int[] counts = friendGraph.mutualFriendCounts(userId, otherIds);
+
+        List<MutualFriendsResponse> result = new ArrayList<>(otherIds.length);
+        for (int i = 0; i < otherIds.length; i++) {
+            result.add(new MutualFriendsResponse(otherIds[i], counts[i]));
+        }
+        return result;
+    }
+
+    private static List<Integer> toList(int[] userIds) {
+        return Arrays.stream(userIds).boxed().toList();
     }
 }
\ No newline at end of file
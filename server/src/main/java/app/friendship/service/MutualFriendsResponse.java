@@ -0,0 +1,11 @@
+package app.friendship.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+public record MutualFriendsResponse(
+    @Schema(requiredMode = REQUIRED) Integer userId,
+    @Schema(requiredMode = REQUIRED) Integer mutualFriends
+) {
+}
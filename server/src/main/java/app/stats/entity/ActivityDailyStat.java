@@ -0,0 +1,35 @@
+package app.stats.entity;
+
+import app.activity.entity.Type;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row per user, day, title and type. Title and type are optional, so the unique key is an index on their
+ * coalesced values (see {@code V4__null_safe_daily_stats_key.sql}) that JPA cannot describe.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "activity_daily_stats")
+public class ActivityDailyStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate day;
+    private String title;
+    @Enumerated(EnumType.STRING)
+    private Type type;
+    private Long activityCount;
+    private Long totalMinutes;
+}
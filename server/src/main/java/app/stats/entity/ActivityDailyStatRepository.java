@@ -0,0 +1,61 @@
+package app.stats.entity;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ActivityDailyStatRepository extends JpaRepository<ActivityDailyStat, Long> {
+
+    @Query("""
+            SELECT new app.stats.entity.DailyStatView(s.day, s.title, s.activityCount, s.totalMinutes)
+            FROM ActivityDailyStat s
+            WHERE s.userId = :userId
+            ORDER BY s.day
+        """)
+    List<DailyStatView> findViewsByUserId(@Param("userId") Integer userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new app.stats.entity.DailyStatView(s.day, s.title, s.activityCount, s.totalMinutes)
+            FROM ActivityDailyStat s
+            WHERE s.userId = :userId
+            ORDER BY s.day
+        """)
+    Stream<DailyStatView> streamViewsByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO activity_daily_stats (user_id, activity_day, title, type, activity_count, total_minutes)
+            VALUES (:userId, :day, :title, :type, :activityCount, :totalMinutes)
+            ON CONFLICT (user_id, activity_day, COALESCE(title, ''), COALESCE(type, ''))
+            DO UPDATE SET activity_count = activity_daily_stats.activity_count + EXCLUDED.activity_count,
+                          total_minutes = activity_daily_stats.total_minutes + EXCLUDED.total_minutes
+        """, nativeQuery = true)
+    void upsert(
+        @Param("userId") Integer userId,
+        @Param("day") LocalDate day,
+        @Param("title") String title,
+        @Param("type") String type,
+        @Param("activityCount") long activityCount,
+        @Param("totalMinutes") long totalMinutes
+    );
+
+    @Modifying
+    @Query("""
+            DELETE FROM ActivityDailyStat s
+            WHERE s.userId = :userId AND s.day = :day AND s.activityCount <= 0
+        """)
+    void deleteEmptyDays(@Param("userId") Integer userId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM ActivityDailyStat s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") Integer userId);
+}
@@ -0,0 +1,6 @@
+package app.stats.entity;
+
+import java.time.LocalDate;
+
+public record DailyStatView(LocalDate day, String title, Long activityCount, Long totalMinutes) {
+}
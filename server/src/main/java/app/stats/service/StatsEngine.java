@@ -0,0 +1,270 @@
+package app.stats.service;
+
+import app.stats.entity.DailyStatView;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds a {@link StatsResponse} in a single pass over a user's daily rollup rows.
+ * <p>
+ * Everything is accumulated into primitive minute counters: per day-of-week arrays, a per-title index
+ * with counts and totals, and a sorted array of epoch days for the streak calculations. {@link Duration}
+ * and {@link LocalDate} values are only created for the handful of figures that end up in the response.
+ * <p>
+ * Instances are single-use and not thread-safe.
+ */
+final class StatsEngine {
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int MAX_WEEKS_IN_MONTH = 5;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long today;
+    private final long startOfWeek;
+    private final long endOfWeek;
+    private final long startOfTotalWeek;
+    private final long startOfLastWeek;
+    private final long endOfLastWeek;
+    private final long firstDayOfMonth;
+    private final long lastDayOfMonth;
+    private final int weeksInMonth;
+
+    private final long[] minutesByDayOfWeek = new long[DAYS_IN_WEEK];
+    private final boolean[] activeDaysOfWeek = new boolean[DAYS_IN_WEEK];
+    private final long[] minutesThisWeekByDay = new long[DAYS_IN_WEEK];
+    private final long[] minutesByWeekOfMonth = new long[MAX_WEEKS_IN_MONTH];
+    private long totalMinutes;
+    private long minutesToday;
+    private long minutesThisWeek;
+    private long minutesLastWeek;
+
+    private final Map<String, Integer> titleIndex = new HashMap<>();
+    private final Function<String, Integer> newTitle = this::addTitle;
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private long[] titleCounts = new long[INITIAL_CAPACITY];
+    private long[] titleMinutes = new long[INITIAL_CAPACITY];
+
+    private long[] activeDays = new long[INITIAL_CAPACITY];
+    private int activeDayCount;
+    private boolean activeDaysSorted = true;
+
+    StatsEngine(LocalDate today) {
+        LocalDate monday = today.with(DayOfWeek.MONDAY);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate monthEnd = today.with(TemporalAdjusters.lastDayOfMonth());
+
+        this.today = today.toEpochDay();
+        this.startOfWeek = monday.toEpochDay();
+        this.endOfWeek = startOfWeek + DAYS_IN_WEEK - 1;
+        this.startOfTotalWeek = startOfWeek - 1;
+        this.startOfLastWeek = startOfWeek - DAYS_IN_WEEK;
+        this.endOfLastWeek = startOfWeek - 1;
+        this.firstDayOfMonth = monthStart.toEpochDay();
+        this.lastDayOfMonth = monthEnd.toEpochDay();
+        this.weeksInMonth = (monthEnd.getDayOfMonth() + DAYS_IN_WEEK - 1) / DAYS_IN_WEEK;
+    }
+
+    void accept(DailyStatView stat) {
+        accept(stat.day().toEpochDay(), stat.title(), stat.activityCount(), stat.totalMinutes());
+    }
+
+    void accept(long epochDay, String title, long activityCount, long minutes) {
+        int dayOfWeek = dayOfWeekIndex(epochDay);
+
+        totalMinutes += minutes;
+        minutesByDayOfWeek[dayOfWeek] += minutes;
+        activeDaysOfWeek[dayOfWeek] = true;
+
+        if (epochDay == today) {
+            minutesToday += minutes;
+        }
+        if (epochDay >= startOfTotalWeek && epochDay <= today) {
+            minutesThisWeek += minutes;
+        }
+        if (epochDay >= startOfWeek && epochDay <= endOfWeek) {
+            minutesThisWeekByDay[dayOfWeek] += minutes;
+        }
+        if (epochDay >= startOfLastWeek && epochDay <= endOfLastWeek) {
+            minutesLastWeek += minutes;
+        }
+        if (epochDay >= firstDayOfMonth && epochDay <= lastDayOfMonth) {
+            minutesByWeekOfMonth[(int) (epochDay - firstDayOfMonth) / DAYS_IN_WEEK] += minutes;
+        }
+
+        int index = indexOf(title);
+        titleCounts[index] += activityCount;
+        titleMinutes[index] += minutes;
+
+        addActiveDay(epochDay);
+    }
+
+    StatsResponse toResponse(TimeFormatter timeFormatter) {
+        sortActiveDays();
+
+        return StatsResponse.builder()
+            .totalTimeThisWeek(timeFormatter.formatDuration(Duration.ofMinutes(minutesThisWeek)))
+            .currentStreak(timeFormatter.formatPeriod(Period.ofDays(currentStreak())))
+            .longestStreak(timeFormatter.formatPeriod(Period.ofDays(longestStreak())))
+            .mostActiveDay(mostActiveDay(timeFormatter))
+            .timeLoggedToday(timeFormatter.formatDuration(Duration.ofMinutes(minutesToday)))
+            .totalTimeLogged(timeFormatter.formatDuration(Duration.ofMinutes(totalMinutes)))
+            .mostFrequentActivity(activityStat(indexOfMax(titleCounts), timeFormatter))
+            .topActivity(activityStat(indexOfMax(titleMinutes), timeFormatter))
+            .activityBreakdown(activityBreakdown(timeFormatter))
+            .weeklyStats(weeklyStats(timeFormatter))
+            .monthlyStats(monthlyStats(timeFormatter))
+            .totalTimeLastWeek(timeFormatter.formatDuration(Duration.ofMinutes(minutesLastWeek)))
+            .build();
+    }
+
+    private int indexOf(String title) {
+        return titleIndex.computeIfAbsent(title, newTitle);
+    }
+
+    private Integer addTitle(String title) {
+        int next = titleIndex.size();
+        if (next == titles.length) {
+            int capacity = next * 2;
+            titles = Arrays.copyOf(titles, capacity);
+            titleCounts = Arrays.copyOf(titleCounts, capacity);
+            titleMinutes = Arrays.copyOf(titleMinutes, capacity);
+        }
+        titles[next] = title;
+        return next;
+    }
+
+    private void addActiveDay(long epochDay) {
+        if (activeDayCount > 0) {
+            long last = activeDays[activeDayCount - 1];
+            if (last == epochDay) {
+                return;
+            }
+            if (epochDay < last) {
+                activeDaysSorted = false;
+            }
+        }
+        if (activeDayCount == activeDays.length) {
+            activeDays = Arrays.copyOf(activeDays, activeDayCount * 2);
+        }
+        activeDays[activeDayCount++] = epochDay;
+    }
+
+    private void sortActiveDays() {
+        if (activeDaysSorted) {
+            return;
+        }
+        Arrays.sort(activeDays, 0, activeDayCount);
+        int distinct = 0;
+        for (int i = 0; i < activeDayCount; i++) {
+            if (distinct == 0 || activeDays[distinct - 1] != activeDays[i]) {
+                activeDays[distinct++] = activeDays[i];
+            }
+        }
+        activeDayCount = distinct;
+        activeDaysSorted = true;
+    }
+
+    private int currentStreak() {
+        int position = Arrays.binarySearch(activeDays, 0, activeDayCount, today);
+        if (position < 0) {
+            return 0;
+        }
+        int streak = 1;
+        while (position - streak >= 0 && activeDays[position - streak] == today - streak) {
+            streak++;
+        }
+        return streak;
+    }
+
+    private int longestStreak() {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < activeDayCount; i++) {
+            current = i > 0 && activeDays[i] == activeDays[i - 1] + 1 ? current + 1 : 1;
+            longest = Math.max(longest, current);
+        }
+        return longest;
+    }
+
+    private MostActiveDay mostActiveDay(TimeFormatter timeFormatter) {
+        int best = -1;
+        for (int day = 0; day < DAYS_IN_WEEK; day++) {
+            if (activeDaysOfWeek[day] && (best < 0 || minutesByDayOfWeek[day] > minutesByDayOfWeek[best])) {
+                best = day;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        return new MostActiveDay(
+            timeFormatter.formatDayOfWeek(DayOfWeek.of(best + 1)),
+            timeFormatter.formatDuration(Duration.ofMinutes(minutesByDayOfWeek[best]))
+        );
+    }
+
+    /**
+     * Titles are registered with {@code computeIfAbsent}, so {@code titleIndex} iterates in the same order as
+     * the {@code groupingBy} maps of the previous implementation; keeping the first maximum preserves its
+     * tie-breaking and the order of the breakdown.
+     */
+    private int indexOfMax(long[] values) {
+        int best = -1;
+        for (int index : titleIndex.values()) {
+            if (best < 0 || values[index] > values[best]) {
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    private ActivityStat activityStat(int index, TimeFormatter timeFormatter) {
+        if (index < 0) {
+            return null;
+        }
+        return new ActivityStat(titles[index], timeFormatter.formatDuration(Duration.ofMinutes(titleMinutes[index])));
+    }
+
+    private List<ActivityBreakdown> activityBreakdown(TimeFormatter timeFormatter) {
+        List<ActivityBreakdown> breakdown = new ArrayList<>(titleIndex.size());
+        for (int index : titleIndex.values()) {
+            breakdown.add(new ActivityBreakdown(titles[index], timeFormatter.formatToHours(Duration.ofMinutes(titleMinutes[index]))));
+        }
+        return breakdown;
+    }
+
+    private List<WeeklyStat> weeklyStats(TimeFormatter timeFormatter) {
+        List<WeeklyStat> weeklyStats = new ArrayList<>(DAYS_IN_WEEK);
+        for (int day = 0; day < DAYS_IN_WEEK; day++) {
+            weeklyStats.add(new WeeklyStat(
+                timeFormatter.formatDayOfWeek(DayOfWeek.of(day + 1)),
+                timeFormatter.formatToHours(Duration.ofMinutes(minutesThisWeekByDay[day]))
+            ));
+        }
+        return weeklyStats;
+    }
+
+    private List<MonthlyStat> monthlyStats(TimeFormatter timeFormatter) {
+        List<MonthlyStat> monthlyStats = new ArrayList<>(weeksInMonth);
+        for (int week = 0; week < weeksInMonth; week++) {
+            monthlyStats.add(new MonthlyStat(
+                "Week " + (week + 1),
+                timeFormatter.formatToHours(Duration.ofMinutes(minutesByWeekOfMonth[week]))
+            ));
+        }
+        return monthlyStats;
+    }
+
+    private static int dayOfWeekIndex(long epochDay) {
+        // 1970-01-01 was a Thursday, so shifting by three puts Monday at index zero
+        return (int) Math.floorMod(epochDay + 3, DAYS_IN_WEEK);
+    }
+}
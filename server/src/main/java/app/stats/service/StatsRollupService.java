@@ -0,0 +1,133 @@
+package app.stats.service;
+
+import app.activity.entity.Activity;
+import app.activity.entity.ActivityRepository;
+import app.activity.entity.ActivityView;
+import app.activity.entity.Type;
+import app.stats.entity.ActivityDailyStat;
+import app.stats.entity.ActivityDailyStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the per-user daily rollup ({@link ActivityDailyStat}) in step with the activities table.
+ * Every write has to join the caller's transaction so the rollup never diverges from the activity it describes.
+ * <p>
+ * Days are taken in the clock's zone, the same zone {@link StatsEngine} counts "today" in. An activity read back
+ * from the database is normalised to UTC, so its day has to be computed the same way as when it was recorded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class StatsRollupService {
+    private final ActivityDailyStatRepository activityDailyStatRepository;
+    private final ActivityRepository activityRepository;
+    private final Clock clock;
+
+    public void recordActivity(Activity activity) {
+        log.trace("Recording activity {} in daily rollup", activity.getId());
+        apply(activity, 1);
+    }
+
+    public void retractActivity(Activity activity) {
+        log.trace("Retracting activity {} from daily rollup", activity.getId());
+        apply(activity, -1);
+        activityDailyStatRepository.deleteEmptyDays(activity.getUser().getId(), dayOf(activity));
+    }
+
+    /**
+     * Starts a rollup update for many activities of one user that is written with one upsert per day, title and
+     * type when {@link RollupBatch#flush()} is called, instead of one upsert per activity.
+     */
+    public RollupBatch batch(Integer userId) {
+        return new RollupBatch(userId);
+    }
+
+    @Transactional
+    public void rebuild(Integer userId) {
+        log.info("Rebuilding daily stats rollup for user ID: {}", userId);
+        activityDailyStatRepository.deleteByUserId(userId);
+
+        Map<RollupKey, ActivityDailyStat> rollup = new LinkedHashMap<>();
+        for (ActivityView activity : activityRepository.findViewsByUserId(userId)) {
+            RollupKey key = new RollupKey(dayOf(activity.date()), activity.title(), activity.type());
+            ActivityDailyStat stat = rollup.computeIfAbsent(key, k -> ActivityDailyStat.builder()
+                .userId(userId)
+                .day(k.day())
+                .title(k.title())
+                .type(k.type())
+                .activityCount(0L)
+                .totalMinutes(0L)
+                .build());
+            stat.setActivityCount(stat.getActivityCount() + 1);
+            stat.setTotalMinutes(stat.getTotalMinutes() + activity.duration().toMinutes());
+        }
+
+        activityDailyStatRepository.saveAll(rollup.values());
+        log.debug("Rebuilt {} daily stats rows for user ID: {}", rollup.size(), userId);
+    }
+
+    private void apply(Activity activity, int sign) {
+        activityDailyStatRepository.upsert(
+            activity.getUser().getId(),
+            dayOf(activity),
+            activity.getTitle(),
+            activity.getType() == null ? null : activity.getType().name(),
+            sign,
+            sign * activity.getDuration().toMinutes()
+        );
+    }
+
+    private LocalDate dayOf(Activity activity) {
+        return dayOf(activity.getDate());
+    }
+
+    private LocalDate dayOf(ZonedDateTime date) {
+        return date.withZoneSameInstant(clock.getZone()).toLocalDate();
+    }
+
+    public class RollupBatch {
+        private final Integer userId;
+        private final Map<RollupKey, ActivityDailyStat> rollup = new LinkedHashMap<>();
+
+        private RollupBatch(Integer userId) {
+            this.userId = userId;
+        }
+
+        public void add(Activity activity) {
+            RollupKey key = new RollupKey(dayOf(activity), activity.getTitle(), activity.getType());
+            ActivityDailyStat stat = rollup.computeIfAbsent(key, k -> ActivityDailyStat.builder()
+                .activityCount(0L)
+                .totalMinutes(0L)
+                .build());
+            stat.setActivityCount(stat.getActivityCount() + 1);
+            stat.setTotalMinutes(stat.getTotalMinutes() + activity.getDuration().toMinutes());
+        }
+
+        public void flush() {
+            log.debug("Recording {} daily stats rows for user ID: {}", rollup.size(), userId);
+            rollup.forEach((key, stat) -> activityDailyStatRepository.upsert(
+                userId,
+                key.day(),
+                key.title(),
+                key.type() == null ? null : key.type().name(),
+                stat.getActivityCount(),
+                stat.getTotalMinutes()
+            ));
+            rollup.clear();
+        }
+    }
+
+    private record RollupKey(LocalDate day, String title, Type type) {
+    }
+}
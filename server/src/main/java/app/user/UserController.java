@@ -1,6 +1,11 @@
 package app.user;
 
-import app.config.annotations.UserReadAccess;
+import app.config.annotations.UserModificationAccess;
+import app.user.service.ExportDataset;
+import app.user.service.ExportFormat;
+import app.user.service.UserAutocompleteResponse;
+import app.user.service.UserAutocompleteService;
+import app.user.service.UserExportService;
 import app.user.service.UserProfileResponse;
 import app.user.service.UserSearchResponse;
 import app.user.service.UserService;
@@ -9,9 +14,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -20,6 +30,8 @@ import java.util.List;
 @Tag(name = "User Management", description = "Endpoints for user profile management and search operations")
 public class UserController {
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserAutocompleteService userAutocompleteService;
 
     @GetMapping("/{userId}/profile")
     @Operation(
@@ -36,10 +48,38 @@ public class UserController {
         return userService.getUserProfile(userId);
     }
 
+    @GetMapping("/{userId}/export")
+    @UserModificationAccess
+    @Operation(
+        summary = "Export user data",
+        description = "Streams the user's activities, challenges, friendships and daily stats. NDJSON exports every " +
+            "dataset unless one is given; CSV exports a single dataset",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public void exportUserData(
+        @PathVariable Integer userId,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        @RequestParam(required = false) ExportDataset dataset,
+        HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("export-" + userId + "." + format.extension())
+            .build()
+            .toString());
+        userExportService.export(userId, format, dataset, response.getOutputStream());
+    }
+
     @GetMapping("/search")
     @Operation(
         summary = "Search users",
-        description = "Searches users by name and returns sorted results",
+        description = "Searches users by name and returns one page of results, prefix matches first; pages 0 to 20 of up to 50 users",
         security = {@SecurityRequirement(name = "JwtAuth")}
     )
     @ApiResponses(value = {
@@ -47,8 +87,32 @@ public class UserController {
         @ApiResponse(responseCode = "401", description = "Unauthorized access"),
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public List<UserSearchResponse> searchUsers(@RequestParam String query) {
-        return userService.searchUsersSorted(query);
+    public List<UserSearchResponse> searchUsers(
+        @RequestParam String query,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return userService.searchUsersSorted(query, page, size);
+    }
+
+    @GetMapping("/{userId}/autocomplete")
+    @UserModificationAccess
+    @Operation(
+        summary = "Autocomplete user names",
+        description = "Returns users whose name starts with the prefix, the user's friends first",
+        security = {@SecurityRequirement(name = "JwtAuth")}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions returned successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public List<UserAutocompleteResponse> autocomplete(
+        @PathVariable Integer userId,
+        @RequestParam(defaultValue = "") String prefix,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return userAutocompleteService.autocomplete(userId, prefix, limit);
     }
 
     @PutMapping("/{id}/image")
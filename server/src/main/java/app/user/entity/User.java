@@ -18,7 +18,10 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "_user")
+@Table(name = "_user", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_email", columnNames = "email"),
+    @UniqueConstraint(name = "uk_user_name", columnNames = "name")
+})
 public class User implements UserDetails {
     @Id
     @GeneratedValue
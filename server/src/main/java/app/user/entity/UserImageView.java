@@ -0,0 +1,4 @@
+package app.user.entity;
+
+public record UserImageView(Integer id, String imageUrl) {
+}
@@ -0,0 +1,4 @@
+package app.user.entity;
+
+public record UserNameView(Integer id, String name) {
+}
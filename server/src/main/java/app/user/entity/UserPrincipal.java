@@ -0,0 +1,28 @@
+package app.user.entity;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * What a token-authenticated request knows about its user. Holds no password hash or profile data, so it is
+ * safe to keep in the principal cache.
+ */
+public record UserPrincipal(Integer id, String email, Role role) implements Principal {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
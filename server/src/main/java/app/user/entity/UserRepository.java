@@ -1,17 +1,79 @@
 package app.user.entity;
 
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByName(String username);
 
-    List<User> findByNameContainingIgnoreCase(String name, Sort sort);
+    @Query("SELECT new app.user.entity.UserPrincipal(u.id, u.email, u.role) FROM User u WHERE u.id = :id")
+    Optional<UserPrincipal> findPrincipalById(@Param("id") Integer id);
+
+    /**
+     * Names starting with {@code prefix} (a lower-case LIKE pattern), walked in order on the
+     * {@code (lower(name) COLLATE "C", id)} index, so only the rows up to the end of the page are read.
+     */
+    @Query(value = """
+        SELECT * FROM _user
+        WHERE lower(name) COLLATE "C" LIKE :prefix ESCAPE '\\'
+        ORDER BY lower(name) COLLATE "C", id
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<User> searchByNamePrefix(
+        @Param("prefix") String prefix,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    /**
+     * Counts the names starting with {@code prefix}, stopping at {@code limit}.
+     */
+    @Query(value = """
+        SELECT count(*) FROM (
+            SELECT 1 FROM _user WHERE lower(name) COLLATE "C" LIKE :prefix ESCAPE '\\' LIMIT :limit
+        ) matches
+        """, nativeQuery = true)
+    long countByNamePrefix(@Param("prefix") String prefix, @Param("limit") long limit);
+
+    /**
+     * Names containing {@code contains} but not starting with {@code prefix}, in name order. The matches are
+     * collected through the trigram index on {@code lower(name)} before sorting; left to itself the planner may
+     * walk the name index instead and filter, which reads most of the table for a rare keyword.
+     */
+    @Query(value = """
+        WITH matches AS MATERIALIZED (
+            SELECT * FROM _user
+            WHERE lower(name) LIKE :contains ESCAPE '\\'
+              AND lower(name) COLLATE "C" NOT LIKE :prefix ESCAPE '\\'
+        )
+        SELECT * FROM matches
+        ORDER BY lower(name) COLLATE "C", id
+        LIMIT :limit OFFSET :offset
+        """, nativeQuery = true)
+    List<User> searchByNameContainingNotStartingWith(
+        @Param("contains") String contains,
+        @Param("prefix") String prefix,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
 
     List<User> findAllByNameIn(List<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new app.user.entity.UserNameView(u.id, u.name) FROM User u")
+    Stream<UserNameView> streamNameViews();
+
+    @Query("SELECT new app.user.entity.UserImageView(u.id, u.imageUrl) FROM User u WHERE u.id IN :ids")
+    List<UserImageView> findImageViewsByIdIn(@Param("ids") Collection<Integer> ids);
 }
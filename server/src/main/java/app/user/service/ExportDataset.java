@@ -0,0 +1,26 @@
+package app.user.service;
+
+import java.util.List;
+
+public enum ExportDataset {
+    ACTIVITIES("activities", List.of("id", "title", "type", "durationMinutes", "date")),
+    CHALLENGES("challenges", List.of("challengeId", "title", "description", "goal", "unit", "progress", "createdAt")),
+    FRIENDSHIPS("friendships", List.of("senderId", "receiverId", "status")),
+    DAILY_STATS("dailyStats", List.of("day", "title", "activityCount", "totalMinutes"));
+
+    private final String key;
+    private final List<String> columns;
+
+    ExportDataset(String key, List<String> columns) {
+        this.key = key;
+        this.columns = columns;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+}
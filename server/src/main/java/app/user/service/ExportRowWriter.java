@@ -0,0 +1,115 @@
+package app.user.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows to the output as they come, holding no more than the writer's buffer. Closing flushes
+ * the output but leaves it open.
+ */
+abstract class ExportRowWriter implements Closeable {
+
+    static ExportRowWriter of(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRowWriter(out, objectMapper);
+            case CSV -> new CsvRowWriter(out);
+        };
+    }
+
+    abstract void startDataset(ExportDataset dataset) throws IOException;
+
+    abstract void writeRow(ExportDataset dataset, List<Object> values) throws IOException;
+
+    /**
+     * One JSON object per line, tagged with the dataset it belongs to.
+     */
+    private static final class NdjsonRowWriter extends ExportRowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // rows are separated by the newline written after each one, not by Jackson's default space
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void startDataset(ExportDataset dataset) {
+        }
+
+        @Override
+        void writeRow(ExportDataset dataset, List<Object> values) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("dataset", dataset.key());
+            List<String> columns = dataset.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeFieldName(columns.get(i));
+                generator.writeObject(values.get(i));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * A header row followed by one row per record, quoted where a value needs it.
+     */
+    private static final class CsvRowWriter extends ExportRowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void startDataset(ExportDataset dataset) throws IOException {
+            writeLine(dataset.columns());
+        }
+
+        @Override
+        void writeRow(ExportDataset dataset, List<Object> values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
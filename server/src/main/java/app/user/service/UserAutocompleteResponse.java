@@ -0,0 +1,18 @@
+package app.user.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record UserAutocompleteResponse(
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    Integer id,
+
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    String username,
+
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    String imageUrl,
+
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    boolean friend
+) {
+}
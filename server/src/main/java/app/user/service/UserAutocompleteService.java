@@ -0,0 +1,68 @@
+package app.user.service;
+
+import app.friendship.service.FriendshipService;
+import app.user.entity.UserNameView;
+import app.user.entity.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Name autocomplete for the participant picker: the viewer's friends whose name starts with the prefix come
+ * first, then everyone else in name order. Both lists are read from memory; only the images of the returned
+ * users are loaded, in one query.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserAutocompleteService {
+    static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+    static final int MAX_AUTOCOMPLETE_LIMIT = 20;
+
+    private final UserNameIndex userNameIndex;
+    private final FriendshipService friendshipService;
+    private final UserRepository userRepository;
+
+    public List<UserAutocompleteResponse> autocomplete(Integer viewerId, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_LIMIT) {
+            throw new IllegalArgumentException("Autocomplete limit must be between 1 and " + MAX_AUTOCOMPLETE_LIMIT);
+        }
+        String normalizedPrefix = prefix == null ? "" : UserNameIndex.normalize(prefix);
+
+        Set<Integer> friendIds = new HashSet<>(friendshipService.getFriends(viewerId));
+        List<UserNameView> matches = new ArrayList<>(limit);
+        friendIds.stream()
+            .map(userNameIndex::get)
+            .filter(Objects::nonNull)
+            .filter(view -> UserNameIndex.normalize(view.name()).startsWith(normalizedPrefix))
+            .sorted(Comparator.comparing(UserNameIndex::key))
+            .limit(limit)
+            .forEach(matches::add);
+
+        if (matches.size() < limit) {
+            matches.addAll(userNameIndex.startingWith(
+                normalizedPrefix,
+                limit - matches.size(),
+                userId -> userId == viewerId || friendIds.contains(userId)
+            ));
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, String> imageUrls = new HashMap<>();
+        userRepository.findImageViewsByIdIn(matches.stream().map(UserNameView::id).toList())
+            .forEach(image -> imageUrls.put(image.id(), image.imageUrl()));
+        return matches.stream()
+            .map(view -> new UserAutocompleteResponse(
+                view.id(), view.name(), imageUrls.get(view.id()), friendIds.contains(view.id())))
+            .toList();
+    }
+}
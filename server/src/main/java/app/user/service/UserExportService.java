@@ -0,0 +1,93 @@
+package app.user.service;
+
+import app.activity.entity.ActivityRepository;
+import app.challenge.entity.ChallengeParticipantsRepository;
+import app.friendship.entity.FriendshipRepository;
+import app.stats.entity.ActivityDailyStatRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports everything stored about a user. Rows are read through streaming projection queries with a fixed
+ * fetch size and written to the output one at a time, so memory use does not depend on how much history the
+ * user has.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+    private final ActivityRepository activityRepository;
+    private final ChallengeParticipantsRepository challengeParticipantsRepository;
+    private final FriendshipRepository friendshipRepository;
+    private final ActivityDailyStatRepository activityDailyStatRepository;
+    private final ObjectMapper objectMapper;
+    private final UserLogger userLogger = new UserLogger(log);
+
+    /**
+     * Writes the given dataset, or all of them when {@code dataset} is null. CSV holds a single table, so a
+     * CSV export needs a dataset.
+     */
+    @Transactional(readOnly = true)
+    public void export(Integer userId, ExportFormat format, ExportDataset dataset, OutputStream out) throws IOException {
+        if (format == ExportFormat.CSV && dataset == null) {
+            throw new IllegalArgumentException("CSV export needs a dataset");
+        }
+        long startTime = System.currentTimeMillis();
+        userLogger.logExportingUserData(userId, format, dataset);
+
+        List<ExportDataset> datasets = dataset == null ? List.of(ExportDataset.values()) : List.of(dataset);
+        long rowCount = 0;
+        try (ExportRowWriter writer = ExportRowWriter.of(format, out, objectMapper)) {
+            for (ExportDataset current : datasets) {
+                writer.startDataset(current);
+                try (Stream<List<Object>> rows = rows(userId, current)) {
+                    for (Iterator<List<Object>> iterator = rows.iterator(); iterator.hasNext(); rowCount++) {
+                        writer.writeRow(current, iterator.next());
+                    }
+                }
+            }
+        }
+
+        userLogger.logUserDataExported(userId, rowCount, startTime);
+    }
+
+    private Stream<List<Object>> rows(Integer userId, ExportDataset dataset) {
+        return switch (dataset) {
+            case ACTIVITIES -> activityRepository.streamViewsByUserId(userId)
+                .map(activity -> values(activity.id(), activity.title(), activity.type(),
+                    activity.duration().toMinutes(), activity.date().toInstant()));
+            case CHALLENGES -> challengeParticipantsRepository.streamExportViewsByUserId(userId)
+                .map(challenge -> values(challenge.challengeId(), challenge.title(), challenge.description(),
+                    challenge.goal(), challenge.unit(), challenge.progress(), instant(challenge.createdAt())));
+            case FRIENDSHIPS -> friendshipRepository.streamViewsByUserId(userId)
+                .map(friendship -> values(friendship.senderId(), friendship.receiverId(), friendship.status()));
+            case DAILY_STATS -> activityDailyStatRepository.streamViewsByUserId(userId)
+                .map(stat -> values(stat.day(), stat.title(), stat.activityCount(), stat.totalMinutes()));
+        };
+    }
+
+    private static Instant instant(ZonedDateTime date) {
+        return date == null ? null : date.toInstant();
+    }
+
+    /**
+     * Numbers are kept as they are, everything else is written in its string form.
+     */
+    private static List<Object> values(Object... values) {
+        return Arrays.stream(values)
+            .map(value -> value == null || value instanceof Number ? value : value.toString())
+            .toList();
+    }
+}
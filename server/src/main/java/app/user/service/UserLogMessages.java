@@ -11,6 +11,9 @@ public final class UserLogMessages {
     public static final String UPDATING_PROFILE_IMAGE = "Updating profile image for user ID: {}";
     public static final String UPDATING_PROFILE_NAME = "Updating profile name for user ID: {}";
 
+    public static final String EXPORTING_USER_DATA = "Exporting {} data of user ID: {} as {}";
+    public static final String USER_DATA_EXPORTED = "Exported {} rows of user ID: {}";
+
     public static final String USER_LOOKUP = "Looking for user ID: {}";
     public static final String IMAGE_UPDATED = "Profile image updated for user ID: {}. Old: {}, New: {}";
     public static final String NAME_UPDATED = "Profile name updated for user ID: {}. Old: '{}', New: '{}'";
@@ -23,6 +26,7 @@ public final class UserLogMessages {
     public static final String INVALID_USER_ID = "Invalid user ID provided: {}";
     public static final String EMPTY_SEARCH_KEYWORD = "Empty search keyword provided";
     public static final String SEARCH_TOO_SHORT = "Search keyword too short: '{}'";
+    public static final String INVALID_SEARCH_PAGE = "Invalid user search page: {} with size: {}";
     
     public static final String PROFILE_CACHED = "Profile served from cache for user ID: {}";
     public static final String CACHE_MISS = "Cache miss for user ID: {}, fetching from database";
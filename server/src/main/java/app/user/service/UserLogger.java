@@ -16,6 +16,16 @@ public final class UserLogger extends BaseLogger {
         logUserAction("FETCH_PROFILE", userId);
     }
 
+    public void logExportingUserData(Integer userId, ExportFormat format, ExportDataset dataset) {
+        logger.info(EXPORTING_USER_DATA, dataset == null ? "all" : dataset.key(), userId, format);
+        logUserAction("EXPORT_DATA", userId);
+    }
+
+    public void logUserDataExported(Integer userId, long rowCount, long startTime) {
+        logger.info(USER_DATA_EXPORTED, rowCount, userId);
+        logPerformanceEnd("EXPORT_DATA[User:" + userId + "]", startTime);
+    }
+
     public void logProfileFetched(Integer userId) {
         logger.debug(PROFILE_FETCHED, userId);
     }
@@ -65,6 +75,10 @@ public final class UserLogger extends BaseLogger {
         logValidationError("searchKeyword", "empty");
     }
 
+    public void logInvalidSearchPage(int page, int size) {
+        logger.warn(INVALID_SEARCH_PAGE, page, size);
+    }
+
     public void logSearchTooShort(String keyword) {
         logger.debug(SEARCH_TOO_SHORT, keyword);
     }
@@ -0,0 +1,143 @@
+package app.user.service;
+
+import app.user.entity.User;
+import app.user.entity.UserNameView;
+import app.user.entity.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of every user's id and name, ordered by lower-cased name, kept in step by the
+ * {@link UserService} and registration code that write names.
+ * <p>
+ * Entries are keyed by {@code lower(name) + '\0' + id}, so the users whose name starts with a prefix are one
+ * contiguous range of the skip list and come out in name order. Updates replace a single entry.
+ * <p>
+ * The index is loaded once all singletons exist, before the web server starts taking requests. A rebuild streams
+ * names into a new index while the current one keeps serving; names written meanwhile go to both, so a rename made
+ * during the load is not overwritten by the older name the load read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameIndex implements SmartInitializingSingleton {
+    private static final char ID_SEPARATOR = '\0';
+    private static final char RANGE_END = Character.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final TransactionOperations transactionOperations;
+    private final Object writeLock = new Object();
+
+    private volatile Names names = new Names();
+    private List<UserNameView> writesDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            writesDuringRebuild = new ArrayList<>();
+        }
+
+        Names loaded = new Names();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                try (Stream<UserNameView> views = userRepository.streamNameViews()) {
+                    views.forEach(loaded::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                writesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            writesDuringRebuild.forEach(loaded::put);
+            writesDuringRebuild = null;
+            names = loaded;
+        }
+        log.info("Loaded user name index - Users: {}", loaded.byId.size());
+    }
+
+    public void put(User user) {
+        put(new UserNameView(user.getId(), user.getName()));
+    }
+
+    public void put(UserNameView view) {
+        if (view.id() == null || view.name() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            names.put(view);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(view);
+            }
+        }
+    }
+
+    public UserNameView get(int userId) {
+        return names.byId.get(userId);
+    }
+
+    public int size() {
+        return names.byId.size();
+    }
+
+    /**
+     * Returns up to {@code limit} users whose lower-cased name starts with {@code prefix}, in name order,
+     * leaving out those rejected by {@code skip}.
+     */
+    public List<UserNameView> startingWith(String prefix, int limit, IntPredicate skip) {
+        List<UserNameView> matches = new ArrayList<>(limit);
+        for (UserNameView view : names.byName.subMap(prefix, true, prefix + RANGE_END, false).values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            if (!skip.test(view.id())) {
+                matches.add(view);
+            }
+        }
+        return matches;
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String key(UserNameView view) {
+        return normalize(view.name()) + ID_SEPARATOR + view.id();
+    }
+
+    private static final class Names {
+        private final NavigableMap<String, UserNameView> byName = new ConcurrentSkipListMap<>();
+        private final Map<Integer, UserNameView> byId = new ConcurrentHashMap<>();
+
+        /**
+         * Replaces the entry of the view's user. Callers hold the write lock or own the instance.
+         */
+        private void put(UserNameView view) {
+            UserNameView previous = byId.put(view.id(), view);
+            if (previous != null) {
+                byName.remove(key(previous));
+            }
+            byName.put(key(view), view);
+        }
+    }
+}
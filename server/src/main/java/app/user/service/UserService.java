@@ -1,21 +1,32 @@
 package app.user.service;
 
 import app.user.entity.User;
+import app.user.entity.UserPrincipal;
 import app.user.entity.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 50;
+    /** Deepest page served; OFFSET still reads every skipped row, so deep pages would cost a near full scan. */
+    static final int MAX_SEARCH_PAGE = 20;
+    private static final int TRIGRAM_LENGTH = 3;
+
     private final UserRepository userRepository;
+    private final UserNameIndex userNameIndex;
     private final UserLogger userLogger = new UserLogger(log);
 
     public User getUserById(Integer userId) {
@@ -33,6 +44,29 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Loads the id, email and role of the user that authenticates a request. Cached for a short time; methods
+     * that change the profile or role must evict the entry.
+     */
+    @Cacheable(value = "principalCache", key = "#userId")
+    public UserPrincipal getPrincipal(Integer userId) {
+        validateUserId(userId);
+        return userRepository.findPrincipalById(userId)
+            .orElseThrow(() -> {
+                userLogger.logUserNotFoundError(userId);
+                return new UsernameNotFoundException("User not found with ID: " + userId);
+            });
+    }
+
+    /**
+     * Stores a new password hash, e.g. when a login upgrades the hash to the configured BCrypt cost.
+     */
+    @CacheEvict(value = "principalCache", key = "#user.id")
+    public User updatePassword(User user, String encodedPassword) {
+        user.setPassword(encodedPassword);
+        return userRepository.save(user);
+    }
+
     public UserProfileResponse getUserProfile(Integer userId) {
         long startTime = System.currentTimeMillis();
         userLogger.logFetchingUserProfile(userId);
@@ -47,14 +81,30 @@ public class UserService {
     }
 
     public List<UserSearchResponse> searchUsersSorted(String keyword) {
+        return searchUsersSorted(keyword, 0, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Returns one page of users whose name contains {@code keyword}, prefix matches first and then by name.
+     * Keywords shorter than a trigram only match as a prefix, since the trigram index cannot serve them.
+     * <p>
+     * Prefix matches are read first, in index order; the other substring matches are only searched for when the
+     * prefix matches do not fill the page, since collecting and sorting them costs as much as there are matches.
+     */
+    public List<UserSearchResponse> searchUsersSorted(String keyword, int page, int size) {
         long startTime = System.currentTimeMillis();
         validateSearchKeyword(keyword);
+        validateSearchPage(page, size);
         userLogger.logSearchingUsers(keyword);
 
-        Sort sort = Sort.by(Sort.Direction.ASC, "name");
+        String term = escapeLike(keyword.trim().toLowerCase(Locale.ROOT));
+        long offset = (long) page * size;
 
         long dbStartTime = System.currentTimeMillis();
-        List<UserSearchResponse> results = userRepository.findByNameContainingIgnoreCase(keyword, sort).stream()
+        List<User> users = term.length() < TRIGRAM_LENGTH
+            ? userRepository.searchByNamePrefix(term + "%", size, offset)
+            : searchPrefixThenContaining(term, size, offset);
+        List<UserSearchResponse> results = users.stream()
             .map(this::mapToSearchResponse)
             .collect(Collectors.toList());
         userLogger.logDatabaseOperation("SEARCH_USERS", null, dbStartTime);
@@ -65,6 +115,22 @@ public class UserService {
         return results;
     }
 
+    private List<User> searchPrefixThenContaining(String term, int size, long offset) {
+        List<User> users = userRepository.searchByNamePrefix(term + "%", size, offset);
+        if (users.size() == size) {
+            return users;
+        }
+        // An empty page means there are at most offset prefix matches; the rest of the page continues after them.
+        long prefixMatches = users.isEmpty() && offset > 0
+            ? userRepository.countByNamePrefix(term + "%", offset)
+            : offset + users.size();
+        List<User> page = new ArrayList<>(users);
+        page.addAll(userRepository.searchByNameContainingNotStartingWith(
+            "%" + term + "%", term + "%", size - users.size(), Math.max(0, offset - prefixMatches)));
+        return page;
+    }
+
+    @CacheEvict(value = "principalCache", key = "#userId")
     public void updateProfileImage(Integer userId, String imageUrl) {
         long startTime = System.currentTimeMillis();
         validateUserId(userId);
@@ -83,6 +149,7 @@ public class UserService {
         userLogger.logUserProfileUpdatePerformance(userId, "IMAGE", startTime);
     }
 
+    @CacheEvict(value = "principalCache", key = "#userId")
     public void updateProfileName(Integer userId, String name) {
         long startTime = System.currentTimeMillis();
         validateUserId(userId);
@@ -95,6 +162,7 @@ public class UserService {
         long dbStartTime = System.currentTimeMillis();
         user.setName(name);
         userRepository.save(user);
+        userNameIndex.put(user);
         userLogger.logDatabaseOperation("UPDATE_PROFILE_NAME", userId, dbStartTime);
 
         userLogger.logNameUpdated(userId, oldName, name);
@@ -119,6 +187,18 @@ public class UserService {
         }
     }
 
+    private void validateSearchPage(int page, int size) {
+        if (page < 0 || page > MAX_SEARCH_PAGE || size < 1 || size > MAX_SEARCH_LIMIT) {
+            userLogger.logInvalidSearchPage(page, size);
+            throw new IllegalArgumentException("Search page must be between 0 and " + MAX_SEARCH_PAGE
+                + " and size between 1 and " + MAX_SEARCH_LIMIT);
+        }
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private void validateImageUrl(String imageUrl) {
         if (imageUrl != null /* && imageUrl.length() > 1000*/) {
             userLogger.logImageUrlTooLong();
@@ -0,0 +1,64 @@
+-- Schema as it was maintained by spring.jpa.hibernate.ddl-auto=update before the migrations existed, with the
+-- constraint names Hibernate generated. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start from V2, so nothing added later belongs here.
+
+CREATE SEQUENCE _user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE activities_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE challenges_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE challenge_participants_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE _user (
+    id          INTEGER NOT NULL,
+    date_joined TIMESTAMP(6) WITH TIME ZONE,
+    email       VARCHAR(255),
+    image_url   TEXT,
+    name        VARCHAR(255),
+    password    VARCHAR(255),
+    role        VARCHAR(255),
+    CONSTRAINT _user_pkey PRIMARY KEY (id),
+    CONSTRAINT _user_role_check CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE activities (
+    id       BIGINT NOT NULL,
+    date     TIMESTAMP(6) WITH TIME ZONE,
+    duration NUMERIC(21, 0),
+    title    VARCHAR(255),
+    type     VARCHAR(255),
+    user_id  INTEGER,
+    CONSTRAINT activities_pkey PRIMARY KEY (id),
+    CONSTRAINT activities_type_check CHECK (type IN (
+        'BEER', 'BOOK', 'BRIEFCASE', 'BRUSH', 'CALENDAR', 'CAMERA', 'CAR', 'CHEF_HAT', 'CIGARETTE',
+        'CLAPPERBOARD', 'CLOCK', 'CODE', 'COFFEE', 'DUMBBELL', 'GAMEPAD', 'HEART', 'MUSIC', 'PARTY', 'PEN',
+        'PHONE', 'PIZZA', 'PLANE', 'SHOPPING', 'STAR', 'USERS'
+    )),
+    CONSTRAINT fk7spmhd3l360jj6u91iviyxvcs FOREIGN KEY (user_id) REFERENCES _user (id)
+);
+
+CREATE TABLE challenges (
+    id          BIGINT NOT NULL,
+    created_at  TIMESTAMP(6) WITH TIME ZONE,
+    description VARCHAR(255),
+    goal        INTEGER,
+    title       VARCHAR(255),
+    unit        VARCHAR(255),
+    CONSTRAINT challenges_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE challenge_participants (
+    id           BIGINT NOT NULL,
+    progress     INTEGER,
+    challenge_id BIGINT,
+    user_id      INTEGER,
+    CONSTRAINT challenge_participants_pkey PRIMARY KEY (id),
+    CONSTRAINT fk8yestlu1dvje3mnx36fmsbog9 FOREIGN KEY (challenge_id) REFERENCES challenges (id),
+    CONSTRAINT fktnxbyiywopu3c111hvf72omh7 FOREIGN KEY (user_id) REFERENCES _user (id)
+);
+
+CREATE TABLE friendships (
+    receiver_id INTEGER NOT NULL,
+    sender_id   INTEGER NOT NULL,
+    status      VARCHAR(255) NOT NULL,
+    CONSTRAINT friendships_pkey PRIMARY KEY (receiver_id, sender_id),
+    CONSTRAINT friendships_status_check CHECK (status IN ('PENDING', 'ACCEPTED'))
+);
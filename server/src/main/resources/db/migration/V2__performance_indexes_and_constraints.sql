@@ -0,0 +1,83 @@
+-- Friendships are identified by their unordered pair of users, and stats are read from a per-user daily rollup.
+-- Neither existed in the ddl-auto=update schema of V1.
+ALTER TABLE friendships ADD COLUMN IF NOT EXISTS user_low_id INTEGER;
+ALTER TABLE friendships ADD COLUMN IF NOT EXISTS user_high_id INTEGER;
+
+CREATE TABLE IF NOT EXISTS activity_daily_stats (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id        INTEGER NOT NULL,
+    activity_day   DATE NOT NULL,
+    title          VARCHAR(255),
+    type           VARCHAR(255),
+    activity_count BIGINT,
+    total_minutes  BIGINT,
+    CONSTRAINT activity_daily_stats_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_activity_daily_stats_user_day_title_type UNIQUE (user_id, activity_day, title, type)
+);
+
+-- Friendships stored before the canonical pair columns existed: keep one row per pair (an accepted row wins,
+-- otherwise the one sent by the lower user id), then fill the pair and make it mandatory.
+DELETE FROM friendships f
+WHERE EXISTS (
+    SELECT 1 FROM friendships g
+    WHERE g.sender_id = f.receiver_id
+      AND g.receiver_id = f.sender_id
+      AND ((g.status = 'ACCEPTED' AND f.status <> 'ACCEPTED')
+           OR (g.status = f.status AND g.sender_id < f.sender_id))
+);
+
+UPDATE friendships
+SET user_low_id = LEAST(sender_id, receiver_id),
+    user_high_id = GREATEST(sender_id, receiver_id)
+WHERE user_low_id IS NULL;
+
+ALTER TABLE friendships ALTER COLUMN user_low_id SET NOT NULL;
+ALTER TABLE friendships ALTER COLUMN user_high_id SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_friendships_pair ON friendships (user_low_id, user_high_id);
+CREATE INDEX IF NOT EXISTS idx_friendships_pair_reverse ON friendships (user_high_id, user_low_id);
+
+-- One participant row per user and challenge. Duplicates left by concurrent joins keep their first row.
+DELETE FROM challenge_participants cp
+WHERE EXISTS (
+    SELECT 1 FROM challenge_participants other
+    WHERE other.user_id = cp.user_id
+      AND other.challenge_id = cp.challenge_id
+      AND other.id < cp.id
+);
+
+ALTER TABLE challenge_participants
+    ADD CONSTRAINT uk_challenge_participants_user_challenge UNIQUE (user_id, challenge_id);
+CREATE INDEX idx_challenge_participants_challenge_user ON challenge_participants (challenge_id, user_id);
+
+-- Registration and login look users up by email and name, and both are expected to be unique.
+-- Precondition: no two accounts share an email. Such accounts cannot be merged automatically because each one
+-- owns its own activities, friendships and challenges, so the migration stops and names them instead; merge or
+-- delete them by hand and run it again.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(email, ', ') INTO duplicates
+    FROM (SELECT email FROM _user WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot add uk_user_email, these emails belong to more than one user: %', duplicates;
+    END IF;
+END $$;
+
+-- Duplicate names only clash on display, so the older account keeps the name and the others get their id appended.
+UPDATE _user u
+SET name = LEFT(u.name, 254 - LENGTH(u.id::text)) || '#' || u.id
+WHERE EXISTS (
+    SELECT 1 FROM _user other
+    WHERE other.name = u.name
+      AND other.id < u.id
+);
+
+ALTER TABLE _user ADD CONSTRAINT uk_user_email UNIQUE (email);
+ALTER TABLE _user ADD CONSTRAINT uk_user_name UNIQUE (name);
+
+CREATE INDEX IF NOT EXISTS idx_activities_user_date_id ON activities (user_id, date DESC, id DESC);
+
+-- Activities are imported in chunks of 500; let one sequence call cover a whole chunk.
+ALTER SEQUENCE activities_seq INCREMENT BY 500;
@@ -0,0 +1,6 @@
+-- User search matches lower(name) by substring through trigrams, and keywords shorter than a trigram by prefix
+-- through an ordered index that also serves the ORDER BY.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_user_name_trgm ON _user USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_name_prefix ON _user (lower(name) text_pattern_ops);
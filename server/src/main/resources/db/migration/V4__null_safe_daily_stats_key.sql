@@ -0,0 +1,27 @@
+-- Activities without a title or type used to get a new rollup row on every upsert, because the unique key
+-- treated NULLs as distinct. Fold those rows into one per key, then key the rollup on the coalesced columns so
+-- ON CONFLICT matches them from now on.
+WITH merged AS (
+    SELECT MIN(id) AS keep_id, SUM(activity_count) AS activity_count, SUM(total_minutes) AS total_minutes
+    FROM activity_daily_stats
+    GROUP BY user_id, activity_day, COALESCE(title, ''), COALESCE(type, '')
+    HAVING COUNT(*) > 1
+)
+UPDATE activity_daily_stats s
+SET activity_count = merged.activity_count,
+    total_minutes = merged.total_minutes
+FROM merged
+WHERE s.id = merged.keep_id;
+
+DELETE FROM activity_daily_stats s
+USING activity_daily_stats k
+WHERE k.user_id = s.user_id
+  AND k.activity_day = s.activity_day
+  AND COALESCE(k.title, '') = COALESCE(s.title, '')
+  AND COALESCE(k.type, '') = COALESCE(s.type, '')
+  AND k.id < s.id;
+
+ALTER TABLE activity_daily_stats DROP CONSTRAINT uk_activity_daily_stats_user_day_title_type;
+
+CREATE UNIQUE INDEX uk_activity_daily_stats_user_day_title_type
+    ON activity_daily_stats (user_id, activity_day, COALESCE(title, ''), COALESCE(type, ''));
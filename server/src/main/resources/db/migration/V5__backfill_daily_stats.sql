@@ -0,0 +1,15 @@
+-- Seed the daily stats rollup for users whose activities predate it. Mirrors StatsRollupService.rebuild: days are
+-- dates in the application clock's zone (the clockZone placeholder set in TimeConfig), and durations are stored in
+-- nanoseconds and counted in whole minutes per activity. Users who already have rollup rows are kept as they are.
+INSERT INTO activity_daily_stats (user_id, activity_day, title, type, activity_count, total_minutes)
+SELECT a.user_id,
+       (a.date AT TIME ZONE '${clockZone}')::date,
+       MAX(a.title),
+       MAX(a.type),
+       COUNT(*),
+       SUM(DIV(COALESCE(a.duration, 0), 60000000000))
+FROM activities a
+WHERE a.user_id IS NOT NULL
+  AND a.date IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM activity_daily_stats s WHERE s.user_id = a.user_id)
+GROUP BY a.user_id, (a.date AT TIME ZONE '${clockZone}')::date, COALESCE(a.title, ''), COALESCE(a.type, '');
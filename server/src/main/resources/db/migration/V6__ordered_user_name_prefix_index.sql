@@ -0,0 +1,6 @@
+-- The text_pattern_ops index from V3 serves LIKE 'prefix%' but not ORDER BY lower(name), id, so a short prefix
+-- that matches many users still read and sorted every match. A "C"-collated btree on (lower(name), id) serves
+-- both: the prefix becomes a range condition and the rows come out already ordered, so LIMIT stops early.
+DROP INDEX IF EXISTS idx_user_name_prefix;
+
+CREATE INDEX IF NOT EXISTS idx_user_name_prefix ON _user ((lower(name) COLLATE "C"), id);
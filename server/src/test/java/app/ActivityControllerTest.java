@@ -3,7 +3,10 @@ package app;
 import app.activity.service.ActivityController;
 import app.activity.service.ActivityRequest;
 import app.activity.entity.Type;
+import app.activity.service.ActivityImportFormat;
+import app.activity.service.ActivityImportResponse;
 import app.activity.service.ActivityService;
+import app.activity.service.RecentActivitiesPage;
 import app.activity.service.UserActivityResponse;
 import app.util.BaseControllerTest;
 import org.junit.jupiter.api.Test;
@@ -11,16 +14,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static app.util.TestDataFactory.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ActivityController.class)
@@ -96,6 +102,30 @@ class ActivityControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.recent.size()").value(0));
     }
 
+    @Test
+    void shouldGetRecentActivitiesPage() throws Exception {
+        var page = new RecentActivitiesPage(List.of(activity().title("Push-ups").buildRecentResponse()), "next");
+        when(activityService.getRecentActivities(1, "cursor", 1)).thenReturn(page);
+
+        performGet("/api/v1/users/1/activities/recent?after=cursor&limit=1")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activities.size()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void shouldImportCsvActivities() throws Exception {
+        when(activityService.importActivities(eq(1), any(InputStream.class), eq(ActivityImportFormat.CSV)))
+                .thenReturn(new ActivityImportResponse(1, 0, List.of()));
+
+        mockMvc.perform(post("/api/v1/users/1/activities/import")
+                        .contentType("text/csv")
+                        .content("title,type,duration\nRunning,DUMBBELL,30\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+    }
+
     @Test
     void shouldAddProgress() throws Exception {
         doNothing().when(activityService).addProgress(anyLong(), anyLong(), anyInt());
@@ -2,6 +2,8 @@ package app;
 
 import app.challenge.ChallengeController;
 import app.challenge.service.ChallengeModificationRequest;
+import app.challenge.service.ChallengeProgressResponse;
+import app.challenge.service.ChallengeRankResponse;
 import app.challenge.service.ChallengeRequest;
 import app.challenge.service.ChallengeService;
 import app.util.BaseControllerTest;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -98,6 +101,35 @@ class ChallengeControllerTest extends BaseControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void shouldIncrementProgress() throws Exception {
+        when(challengeService.incrementProgress(1, 1L, 5)).thenReturn(new ChallengeProgressResponse(1L, 55));
+
+        performPostWithString("/api/v1/users/1/challenges/1/progress/increment?amount=5", "")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.challengeId").value(1))
+                .andExpect(jsonPath("$.progress").value(55));
+    }
+
+    @Test
+    void shouldGetRank() throws Exception {
+        when(challengeService.getRank(1, 1L)).thenReturn(new ChallengeRankResponse(1L, 2, 10));
+
+        performGet("/api/v1/users/1/challenges/1/rank")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2))
+                .andExpect(jsonPath("$.participants").value(10));
+    }
+
+    @Test
+    void shouldOpenEventStream() throws Exception {
+        when(challengeService.streamChallengeEvents(1)).thenReturn(new SseEmitter());
+
+        performGet("/api/v1/users/1/challenges/events")
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     void shouldDeleteChallenge() throws Exception {
         doNothing().when(challengeService).deleteChallenge(anyInt(), anyLong());
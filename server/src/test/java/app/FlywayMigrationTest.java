@@ -0,0 +1,170 @@
+package app;
+
+import app.config.TimeConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real Postgres: once from an empty database, letting Hibernate validate the
+ * entities against the result, and once from a database on the ddl-auto=update schema in
+ * {@code db/ddl-auto-schema.sql}, which production baselines at V1. V1 has to build exactly that schema.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+@Import(TimeConfig.class)
+class FlywayMigrationTest {
+    private static final String DDL_AUTO_SCHEMA = "db/ddl-auto-schema.sql";
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private Flyway flyway;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void migrate_EmptyDatabase_AppliesEveryMigrationAndMatchesTheEntities() {
+        assertThat(flyway.info().applied()).isNotEmpty();
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void initialSchema_MatchesTheDdlAutoSchema() throws Exception {
+        DataSource initial = createDatabase("initial_schema", "db/migration/V1__initial_schema.sql");
+        DataSource ddlAuto = createDatabase("ddl_auto_schema", DDL_AUTO_SCHEMA);
+
+        assertThat(describe(new JdbcTemplate(initial))).isEqualTo(describe(new JdbcTemplate(ddlAuto)));
+    }
+
+    @Test
+    void migrate_BaselinedDdlAutoSchema_UpgradesExistingRows() throws Exception {
+        DataSource dataSource = createDatabase("upgrade", DDL_AUTO_SCHEMA);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.update("""
+            INSERT INTO _user (id, email, name, role) VALUES
+                (1, 'anna@example.com', 'anna', 'USER'),
+                (2, 'ben@example.com', 'ben', 'USER'),
+                (3, 'other.anna@example.com', 'anna', 'USER')
+            """);
+        jdbc.update("""
+            INSERT INTO friendships (sender_id, receiver_id, status) VALUES
+                (1, 2, 'PENDING'),
+                (2, 1, 'ACCEPTED'),
+                (3, 1, 'PENDING')
+            """);
+        jdbc.update("""
+            INSERT INTO activities (id, user_id, title, type, duration, date) VALUES
+                (1, 1, 'Run', 'DUMBBELL', 1800000000000, '2024-03-01 10:00:00+00'),
+                (2, 1, 'Run', 'DUMBBELL', 90000000000, '2024-03-01 18:00:00+00'),
+                (3, 2, NULL, NULL, 600000000000, '2024-03-02 03:00:00+00')
+            """);
+
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .placeholders(Map.of("clockZone", "America/New_York"))
+            .load()
+            .migrate();
+
+        assertThat(jdbc.queryForList("SELECT sender_id, receiver_id, user_low_id, user_high_id FROM friendships ORDER BY user_low_id, user_high_id"))
+            .containsExactly(
+                Map.of("sender_id", 2, "receiver_id", 1, "user_low_id", 1, "user_high_id", 2),
+                Map.of("sender_id", 3, "receiver_id", 1, "user_low_id", 1, "user_high_id", 3)
+            );
+        assertThat(jdbc.queryForList("SELECT name FROM _user ORDER BY id", String.class))
+            .containsExactly("anna", "ben", "anna#3");
+        assertThat(jdbc.queryForList("""
+            SELECT user_id, activity_day::text AS day, title, activity_count, total_minutes
+            FROM activity_daily_stats ORDER BY user_id
+            """))
+            .containsExactly(
+                row(1, "2024-03-01", "Run", 2L, 31L),
+                row(2, "2024-03-01", null, 1L, 10L)
+            );
+    }
+
+    private static DataSource createDatabase(String name, String script) throws Exception {
+        JdbcTemplate admin = new JdbcTemplate(POSTGRES.getPostgresDatabase());
+        admin.execute("DROP DATABASE IF EXISTS " + name);
+        admin.execute("CREATE DATABASE " + name);
+        DataSource dataSource = POSTGRES.getDatabase("postgres", name);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+        }
+        return dataSource;
+    }
+
+    private static List<String> describe(JdbcTemplate jdbc) {
+        List<String> schema = new ArrayList<>(jdbc.queryForList("""
+            SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable
+            FROM information_schema.columns
+            WHERE table_schema = 'public'
+            """, String.class));
+        schema.addAll(jdbc.queryForList("""
+            SELECT conrelid::regclass || ' ' || conname || ' ' || pg_get_constraintdef(oid)
+            FROM pg_constraint
+            WHERE connamespace = 'public'::regnamespace
+            """, String.class));
+        schema.addAll(jdbc.queryForList("""
+            SELECT sequencename || ' ' || start_value || ' ' || increment_by FROM pg_sequences
+            """, String.class));
+        Collections.sort(schema);
+        return schema;
+    }
+
+    private static Map<String, Object> row(int userId, String day, String title, long count, long minutes) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("user_id", userId);
+        row.put("day", day);
+        row.put("title", title);
+        row.put("activity_count", count);
+        row.put("total_minutes", minutes);
+        return row;
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
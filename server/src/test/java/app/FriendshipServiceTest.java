@@ -1,13 +1,19 @@
 package app;
 
 import app.friendship.entity.*;
+import app.friendship.service.FriendGraph;
 import app.friendship.service.FriendshipRequest;
 import app.friendship.service.FriendshipService;
+import app.friendship.service.MutualFriendsResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -16,6 +22,7 @@ import static org.mockito.Mockito.*;
 class FriendshipServiceTest {
 
     private FriendshipRepository friendshipRepository;
+    private FriendGraph friendGraph;
     private FriendshipService friendshipService;
 
     private final Integer senderId = 1;
@@ -25,13 +32,19 @@ class FriendshipServiceTest {
     @BeforeEach
     void setUp() {
         friendshipRepository = mock(FriendshipRepository.class);
-        friendshipService = new FriendshipService(friendshipRepository);
+        friendGraph = new FriendGraph(friendshipRepository, TransactionOperations.withoutTransaction());
+        friendshipService = new FriendshipService(friendshipRepository, friendGraph);
+    }
+
+    private void seedGraph(Friendship... friendships) {
+        when(friendshipRepository.streamAllViews()).thenReturn(Arrays.stream(friendships)
+                .map(friendship -> new FriendshipView(friendship.getId().getSenderId(), friendship.getId().getReceiverId(), friendship.getStatus())));
+        friendGraph.rebuild();
     }
 
     @Test
     void shouldSendFriendRequest_whenRequestNotExists() {
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverId(senderId, receiverId)).thenReturn(false);
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverId(receiverId, senderId)).thenReturn(false);
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.empty());
 
         friendshipService.sendFriendRequest(senderId, receiverId);
 
@@ -46,13 +59,27 @@ class FriendshipServiceTest {
 
     @Test
     void shouldNotSendFriendRequest_whenRequestAlreadyExists() {
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverId(senderId, receiverId)).thenReturn(true);
+        when(friendshipRepository.findBetween(senderId, receiverId))
+                .thenReturn(Optional.of(TestFriendshipFactory.create(senderId, receiverId, FriendshipStatus.PENDING)));
 
         friendshipService.sendFriendRequest(senderId, receiverId);
 
         verify(friendshipRepository, never()).save(any());
     }
 
+    @Test
+    void shouldAcceptReciprocalRequest_whenReceiverAlreadySentOne() {
+        Friendship reciprocal = TestFriendshipFactory.create(receiverId, senderId, FriendshipStatus.PENDING);
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.of(reciprocal));
+        when(friendshipRepository.findBetween(receiverId, senderId)).thenReturn(Optional.of(reciprocal));
+
+        friendshipService.sendFriendRequest(senderId, receiverId);
+
+        assertThat(reciprocal.getStatus()).isEqualTo(FriendshipStatus.ACCEPTED);
+        verify(friendshipRepository).save(reciprocal);
+        assertThat(friendshipService.isFriend(senderId, receiverId)).isTrue();
+    }
+
 
     @Test
     void shouldAcceptFriendRequest_whenPendingExists() {
@@ -61,19 +88,19 @@ class FriendshipServiceTest {
                 .status(FriendshipStatus.PENDING)
                 .build();
 
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, senderId, receiverId))
-                .thenReturn(List.of(pending));
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.of(pending));
 
         friendshipService.acceptFriendRequest(senderId, receiverId);
 
         assertThat(pending.getStatus()).isEqualTo(FriendshipStatus.ACCEPTED);
         verify(friendshipRepository).save(pending);
+        assertThat(friendshipService.isFriend(receiverId, senderId)).isTrue();
+        assertThat(friendshipService.hasPendingRequest(senderId, receiverId)).isFalse();
     }
 
     @Test
     void shouldThrowException_whenAcceptingNonexistentFriendRequest() {
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, senderId, receiverId))
-                .thenReturn(List.of());
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> friendshipService.acceptFriendRequest(senderId, receiverId))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -92,24 +119,20 @@ class FriendshipServiceTest {
                 .status(FriendshipStatus.ACCEPTED)
                 .build();
 
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.ACCEPTED, userId1, userId2))
-                .thenReturn(List.of(accepted));
+        when(friendshipRepository.findBetween(userId1, userId2)).thenReturn(Optional.of(accepted));
 
         friendshipService.removeFriend(userId1, userId2);
 
-        verify(friendshipRepository).deleteAll(List.of(accepted));
+        verify(friendshipRepository).delete(accepted);
     }
 
     @Test
     void shouldDoNothing_whenNoPendingFriendRequestExists() {
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, senderId, receiverId))
-                .thenReturn(List.of());
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, receiverId, senderId))
-                .thenReturn(List.of());
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.empty());
 
         friendshipService.cancelFriendRequest(senderId, receiverId);
 
-        verify(friendshipRepository, times(2)).deleteAll(eq(List.of()));
+        verify(friendshipRepository, never()).delete(any());
     }
 
     @Test
@@ -123,8 +146,7 @@ class FriendshipServiceTest {
                 .status(FriendshipStatus.PENDING)
                 .build();
 
-        when(friendshipRepository.findById_ReceiverIdAndStatus(userId, FriendshipStatus.PENDING))
-                .thenReturn(List.of(pending1, pending2));
+        seedGraph(pending1, pending2);
 
         List<Integer> result = friendshipService.getPendingFriendRequests(userId);
 
@@ -133,8 +155,7 @@ class FriendshipServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoPendingFriendRequestsExist() {
-        when(friendshipRepository.findById_ReceiverIdAndStatus(userId, FriendshipStatus.PENDING))
-                .thenReturn(List.of());
+        seedGraph(TestFriendshipFactory.create(userId, 2, FriendshipStatus.PENDING));
 
         List<Integer> result = friendshipService.getPendingFriendRequests(userId);
 
@@ -146,8 +167,7 @@ class FriendshipServiceTest {
         Friendship sent1 = TestFriendshipFactory.create(userId, 2, FriendshipStatus.PENDING);
         Friendship sent2 = TestFriendshipFactory.create(userId, 3, FriendshipStatus.PENDING);
 
-        when(friendshipRepository.findById_SenderIdAndStatus(userId, FriendshipStatus.PENDING))
-                .thenReturn(List.of(sent1, sent2));
+        seedGraph(sent1, sent2);
 
         List<Integer> result = friendshipService.getSentFriendRequests(userId);
 
@@ -156,8 +176,7 @@ class FriendshipServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoSentFriendRequestsExist() {
-        when(friendshipRepository.findById_SenderIdAndStatus(userId, FriendshipStatus.PENDING))
-                .thenReturn(List.of());
+        seedGraph(TestFriendshipFactory.create(2, userId, FriendshipStatus.PENDING));
 
         List<Integer> result = friendshipService.getSentFriendRequests(userId);
 
@@ -176,10 +195,7 @@ class FriendshipServiceTest {
                 .status(FriendshipStatus.ACCEPTED)
                 .build();
 
-        when(friendshipRepository.findByStatusAndId_SenderId(FriendshipStatus.ACCEPTED, userId))
-                .thenReturn(List.of(sentFriendship));
-        when(friendshipRepository.findByStatusAndId_ReceiverId(FriendshipStatus.ACCEPTED, userId))
-                .thenReturn(List.of(receivedFriendship));
+        seedGraph(sentFriendship, receivedFriendship);
 
         List<Integer> result = friendshipService.getFriends(userId);
 
@@ -188,10 +204,7 @@ class FriendshipServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoFriendsExist() {
-        when(friendshipRepository.findByStatusAndId_SenderId(FriendshipStatus.ACCEPTED, userId))
-                .thenReturn(List.of());
-        when(friendshipRepository.findByStatusAndId_ReceiverId(FriendshipStatus.ACCEPTED, userId))
-                .thenReturn(List.of());
+        seedGraph(TestFriendshipFactory.create(userId, 2, FriendshipStatus.PENDING));
 
         List<Integer> result = friendshipService.getFriends(userId);
 
@@ -199,37 +212,27 @@ class FriendshipServiceTest {
     }
 
     @Test
-    void shouldCancelFriendRequest_whenPendingRequestsExistInBothDirections() {
-       Friendship pending1 = Friendship.builder()
-                .id(FriendshipKey.builder().senderId(senderId).receiverId(receiverId).build())
-                .status(FriendshipStatus.PENDING)
-                .build();
-        Friendship pending2 = Friendship.builder()
+    void shouldCancelFriendRequest_whenPendingRequestExists() {
+        Friendship pending = Friendship.builder()
                 .id(FriendshipKey.builder().senderId(receiverId).receiverId(senderId).build())
                 .status(FriendshipStatus.PENDING)
                 .build();
 
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, senderId, receiverId))
-                .thenReturn(List.of(pending1));
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, receiverId, senderId))
-                .thenReturn(List.of(pending2));
+        when(friendshipRepository.findBetween(senderId, receiverId)).thenReturn(Optional.of(pending));
 
         friendshipService.cancelFriendRequest(senderId, receiverId);
 
-        verify(friendshipRepository).deleteAll(List.of(pending1));
-        verify(friendshipRepository).deleteAll(List.of(pending2));
+        verify(friendshipRepository).delete(pending);
     }
 
     @Test
-    void shouldNotThrow_whenNoPendingRequestsToCancel() {
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, senderId, receiverId))
-                .thenReturn(List.of());
-        when(friendshipRepository.findByStatusAndSenderOrReceiver(FriendshipStatus.PENDING, receiverId, senderId))
-                .thenReturn(List.of());
+    void shouldNotThrow_whenOnlyAcceptedFriendshipExists() {
+        when(friendshipRepository.findBetween(senderId, receiverId))
+                .thenReturn(Optional.of(TestFriendshipFactory.create(senderId, receiverId, FriendshipStatus.ACCEPTED)));
 
         friendshipService.cancelFriendRequest(senderId, receiverId);
 
-        verify(friendshipRepository, times(2)).deleteAll(eq(List.of()));
+        verify(friendshipRepository, never()).delete(any());
     }
 
     @Test
@@ -251,7 +254,7 @@ class FriendshipServiceTest {
                         .build()
         );
 
-        when(friendshipRepository.findBySenderAndReceiversOrReceiverAndSenders(eq(userId1), eq(List.of(2, 3))))
+        when(friendshipRepository.findBetween(eq(userId1), eq(List.of(2, 3))))
                 .thenReturn(friendships);
 
         List<Friendship> result = friendshipService.getStatuses(userId1, requestList);
@@ -267,7 +270,7 @@ class FriendshipServiceTest {
                 new FriendshipRequest(3)
         );
 
-        when(friendshipRepository.findBySenderAndReceiversOrReceiverAndSenders(eq(userId1), eq(List.of(2, 3))))
+        when(friendshipRepository.findBetween(eq(userId1), eq(List.of(2, 3))))
                 .thenReturn(List.of());
 
         List<Friendship> result = friendshipService.getStatuses(userId1, requestList);
@@ -280,8 +283,7 @@ class FriendshipServiceTest {
         Integer user1 = 1;
         Integer user2 = 2;
 
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user1, user2, FriendshipStatus.ACCEPTED))
-                .thenReturn(true);
+        seedGraph(TestFriendshipFactory.create(user2, user1, FriendshipStatus.ACCEPTED));
 
         boolean result = friendshipService.isFriend(user1, user2);
 
@@ -293,23 +295,69 @@ class FriendshipServiceTest {
         Integer user1 = 1;
         Integer user2 = 2;
 
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user1, user2, FriendshipStatus.ACCEPTED))
-                .thenReturn(false);
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user2, user1, FriendshipStatus.ACCEPTED))
-                .thenReturn(false);
+        seedGraph(TestFriendshipFactory.create(user1, user2, FriendshipStatus.PENDING));
 
         boolean result = friendshipService.isFriend(user1, user2);
 
         assertThat(result).isFalse();
     }
 
+    @Test
+    void shouldSuggestFriendsOfFriends() {
+        seedGraph(
+                TestFriendshipFactory.create(1, 2, FriendshipStatus.ACCEPTED),
+                TestFriendshipFactory.create(2, 3, FriendshipStatus.ACCEPTED)
+        );
+
+        List<MutualFriendsResponse> result = friendshipService.getFriendSuggestions(1, 10);
+
+        assertThat(result).containsExactly(new MutualFriendsResponse(3, 1));
+    }
+
+    @Test
+    void shouldThrowException_whenSuggestionLimitOutOfRange() {
+        assertThatThrownBy(() -> friendshipService.getFriendSuggestions(1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> friendshipService.getFriendSuggestions(1, 51))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReturnMutualFriendCountsInRequestOrder() {
+        seedGraph(
+                TestFriendshipFactory.create(1, 2, FriendshipStatus.ACCEPTED),
+                TestFriendshipFactory.create(1, 3, FriendshipStatus.ACCEPTED),
+                TestFriendshipFactory.create(4, 2, FriendshipStatus.ACCEPTED),
+                TestFriendshipFactory.create(4, 3, FriendshipStatus.ACCEPTED)
+        );
+
+        List<MutualFriendsResponse> result = friendshipService.getMutualFriendCounts(1,
+                List.of(new FriendshipRequest(4), new FriendshipRequest(2), new FriendshipRequest(9)));
+
+        assertThat(result).containsExactly(
+                new MutualFriendsResponse(4, 2),
+                new MutualFriendsResponse(2, 0),
+                new MutualFriendsResponse(9, 0)
+        );
+    }
+
+    @Test
+    void shouldThrowException_whenTooManyUsersForMutualFriendCounts() {
+        List<FriendshipRequest> users = IntStream.rangeClosed(2, 502)
+                .mapToObj(FriendshipRequest::new)
+                .toList();
+
+        assertThatThrownBy(() -> friendshipService.getMutualFriendCounts(1, users))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(friendshipService.getMutualFriendCounts(1, users.subList(0, 500))).hasSize(500);
+    }
+
     @Test
     void shouldReturnTrue_whenPendingRequestExistsInOneDirection() {
         Integer user1 = 1;
         Integer user2 = 2;
 
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user1, user2, FriendshipStatus.PENDING))
-                .thenReturn(true);
+        seedGraph(TestFriendshipFactory.create(user2, user1, FriendshipStatus.PENDING));
 
         boolean result = friendshipService.hasPendingRequest(user1, user2);
 
@@ -321,10 +369,7 @@ class FriendshipServiceTest {
         Integer user1 = 1;
         Integer user2 = 2;
 
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user1, user2, FriendshipStatus.PENDING))
-                .thenReturn(false);
-        when(friendshipRepository.existsById_SenderIdAndId_ReceiverIdAndStatus(user2, user1, FriendshipStatus.PENDING))
-                .thenReturn(false);
+        seedGraph(TestFriendshipFactory.create(user1, user2, FriendshipStatus.ACCEPTED));
 
         boolean result = friendshipService.hasPendingRequest(user1, user2);
 
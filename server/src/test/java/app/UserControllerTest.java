@@ -1,6 +1,11 @@
 package app;
 
 import app.user.UserController;
+import app.user.service.ExportDataset;
+import app.user.service.ExportFormat;
+import app.user.service.UserAutocompleteResponse;
+import app.user.service.UserAutocompleteService;
+import app.user.service.UserExportService;
 import app.user.service.UserService;
 import app.util.BaseControllerTest;
 import org.junit.jupiter.api.Test;
@@ -12,6 +17,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.util.List;
 
 import static app.util.TestDataFactory.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,6 +30,37 @@ class UserControllerTest extends BaseControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserAutocompleteService userAutocompleteService;
+
+    @Test
+    void shouldAutocompleteWithFriendsFlagged() throws Exception {
+        when(userAutocompleteService.autocomplete(1, "jo", 10)).thenReturn(List.of(
+                new UserAutocompleteResponse(3, "joanna", null, true),
+                new UserAutocompleteResponse(2, "john", null, false)
+        ));
+
+        performGetWithParam("/api/v1/users/1/autocomplete", "prefix", "jo")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].username").value("joanna"))
+                .andExpect(jsonPath("$[0].friend").value(true))
+                .andExpect(jsonPath("$[1].friend").value(false));
+    }
+
+    @Test
+    void shouldStreamCsvExportAsAttachment() throws Exception {
+        performGet("/api/v1/users/1/export?format=CSV&dataset=ACTIVITIES")
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"export-1.csv\""));
+
+        verify(userExportService).export(eq(1), eq(ExportFormat.CSV), eq(ExportDataset.ACTIVITIES), any());
+    }
+
     @Test
     void shouldGetUserProfile() throws Exception {
         var profile = user().name("Test User").buildProfileResponse();
@@ -47,7 +86,7 @@ class UserControllerTest extends BaseControllerTest {
                 user().id(1).name("john_doe").buildSearchResponse(),
                 user().id(2).name("jane_smith").imageUrl("http://example.com/jane.png").buildSearchResponse()
         );
-        when(userService.searchUsersSorted("john")).thenReturn(users);
+        when(userService.searchUsersSorted("john", 0, 20)).thenReturn(users);
 
         performGetWithParam("/api/v1/users/search", "query", "john")
                 .andExpect(status().isOk())
@@ -58,7 +97,7 @@ class UserControllerTest extends BaseControllerTest {
 
     @Test
     void shouldSearchUsersEmptyResult() throws Exception {
-        when(userService.searchUsersSorted("nonexistent")).thenReturn(List.of());
+        when(userService.searchUsersSorted("nonexistent", 0, 20)).thenReturn(List.of());
 
         performGetWithParam("/api/v1/users/search", "query", "nonexistent")
                 .andExpect(status().isOk())
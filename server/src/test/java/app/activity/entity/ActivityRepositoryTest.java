@@ -0,0 +1,113 @@
+package app.activity.entity;
+
+import app.user.entity.Role;
+import app.user.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ActivityRepositoryTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder().email("user@example.com").name("User").role(Role.USER).build());
+        otherUser = entityManager.persist(User.builder().email("other@example.com").name("Other").role(Role.USER).build());
+    }
+
+    @Test
+    void findRecentViews_PagesThroughAllActivitiesNewestFirst() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // activities share dates in groups of three, so the id has to break the tie
+            Activity activity = persist(user, "Activity " + i, START.plusMinutes(i - i % 3));
+            expected.add(0, activity.getId());
+        }
+        persist(otherUser, "Foreign", START.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ActivityView> page = activityRepository.findRecentViews(user.getId(), Limit.of(10));
+        List<Long> seen = new ArrayList<>(page.stream().map(ActivityView::id).toList());
+        while (!page.isEmpty()) {
+            ActivityView last = page.get(page.size() - 1);
+            page = activityRepository.findRecentViewsBefore(user.getId(), last.date(), last.id(), Limit.of(10));
+            page.forEach(view -> seen.add(view.id()));
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findTitleViews_ReturnsFirstActivityOfEachTitleSortedByTitle() {
+        Activity firstRunning = persist(user, "Running", START);
+        persist(user, "Running", START.plusHours(1));
+        Activity reading = persist(user, "Reading", START.plusHours(2));
+        persist(otherUser, "Cycling", START);
+        entityManager.flush();
+
+        assertThat(activityRepository.findTitleViews(user.getId())).containsExactly(
+            new ActivityTitleView(reading.getId(), "Reading", Type.BOOK),
+            new ActivityTitleView(firstRunning.getId(), "Running", Type.BOOK)
+        );
+    }
+
+    @Test
+    void viewQueries_DoNotLoadActivityOrUserEntities() {
+        persist(user, "Running", START);
+        persist(user, "Reading", START.plusHours(1));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+        statistics.clear();
+
+        assertThat(activityRepository.findViewsByUserId(user.getId())).hasSize(2);
+        assertThat(activityRepository.findRecentViews(user.getId(), Limit.of(10))).hasSize(2);
+        assertThat(activityRepository.findTitleViews(user.getId())).hasSize(2);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private Activity persist(User owner, String title, ZonedDateTime date) {
+        return entityManager.persist(Activity.builder()
+            .title(title)
+            .type(Type.BOOK)
+            .duration(Duration.ofMinutes(10))
+            .date(date)
+            .user(owner)
+            .build());
+    }
+}
@@ -0,0 +1,107 @@
+package app.activity.service;
+
+import app.activity.entity.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActivityImportReaderTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    private final ActivityImportReader reader =
+        new ActivityImportReader(new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void read_Ndjson_ParsesRowsAndReportsInvalidOnesByLine() throws IOException {
+        List<ActivityImportLine> lines = read(ActivityImportFormat.NDJSON, """
+            {"title": "Running", "type": "dumbbell", "duration": 30, "date": "2020-01-02T07:30:00Z"}
+
+            {"title": "Reading", "type": "BOOK", "duration": "45"}
+            {"title": "Sleeping", "type": "BED", "duration": 480}
+            {"title": "Running", "type": "DUMBBELL", "duration": -5}
+            not json
+            """);
+
+        assertThat(lines).containsExactly(
+            ActivityImportLine.valid(1, "Running", Type.DUMBBELL, Duration.ofMinutes(30), ZonedDateTime.parse("2020-01-02T07:30:00Z")),
+            ActivityImportLine.valid(3, "Reading", Type.BOOK, Duration.ofMinutes(45), ZonedDateTime.ofInstant(NOW, ZoneOffset.UTC)),
+            ActivityImportLine.invalid(4, "Unknown type: BED"),
+            ActivityImportLine.invalid(5, "Duration must be a positive number of minutes"),
+            ActivityImportLine.invalid(6, "Malformed JSON")
+        );
+    }
+
+    @Test
+    void read_Csv_MapsColumnsByHeaderAndHonoursQuotes() throws IOException {
+        List<ActivityImportLine> lines = read(ActivityImportFormat.CSV, """
+            \uFEFFDuration,Title,Type,Date
+            30,"Push-ups, morning",DUMBBELL,2021-06-01
+            15,"Say \"\"hi\"\"",PHONE,
+            ,Nothing,BOOK,
+            10,Coffee,COFFEE,yesterday
+            """);
+
+        assertThat(lines).containsExactly(
+            ActivityImportLine.valid(2, "Push-ups, morning", Type.DUMBBELL, Duration.ofMinutes(30),
+                ZonedDateTime.of(2021, 6, 1, 0, 0, 0, 0, ZoneOffset.UTC)),
+            ActivityImportLine.valid(3, "Say \"hi\"", Type.PHONE, Duration.ofMinutes(15), ZonedDateTime.ofInstant(NOW, ZoneOffset.UTC)),
+            ActivityImportLine.invalid(4, "Duration must be a positive number of minutes"),
+            ActivityImportLine.invalid(5, "Invalid date: yesterday")
+        );
+    }
+
+    @Test
+    void read_DateWithOffset_IsStoredInClockZone() throws IOException {
+        ActivityImportReader warsawReader =
+            new ActivityImportReader(new ObjectMapper(), Clock.fixed(NOW, ZoneId.of("Europe/Warsaw")));
+
+        try (Stream<ActivityImportLine> lines = warsawReader.read(new ByteArrayInputStream(
+            "{\"title\": \"Running\", \"type\": \"DUMBBELL\", \"duration\": 30, \"date\": \"2020-01-02T23:30:00-05:00\"}"
+                .getBytes(StandardCharsets.UTF_8)), ActivityImportFormat.NDJSON)) {
+            assertThat(lines.toList()).containsExactly(ActivityImportLine.valid(1, "Running", Type.DUMBBELL,
+                Duration.ofMinutes(30), ZonedDateTime.of(2020, 1, 3, 5, 30, 0, 0, ZoneId.of("Europe/Warsaw"))));
+        }
+    }
+
+    @Test
+    void read_TooLongTitle_RejectsOnlyThatLine() throws IOException {
+        String longTitle = "x".repeat(ActivityImportReader.MAX_TITLE_LENGTH + 1);
+
+        List<ActivityImportLine> lines = read(ActivityImportFormat.CSV,
+            "title,type,duration\n" + longTitle + ",BOOK,10\nReading,BOOK,20\n");
+
+        assertThat(lines).containsExactly(
+            ActivityImportLine.invalid(2, "Title is longer than 255 characters"),
+            ActivityImportLine.valid(3, "Reading", Type.BOOK, Duration.ofMinutes(20), ZonedDateTime.ofInstant(NOW, ZoneOffset.UTC))
+        );
+    }
+
+    @Test
+    void read_CsvWithoutRequiredColumns_ThrowsException() {
+        assertThatThrownBy(() -> read(ActivityImportFormat.CSV, "title,duration\nRunning,30\n"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("CSV header");
+    }
+
+    private List<ActivityImportLine> read(ActivityImportFormat format, String body) throws IOException {
+        try (Stream<ActivityImportLine> lines = reader.read(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format)) {
+            return lines.toList();
+        }
+    }
+}
@@ -2,23 +2,31 @@ package app.activity.service;
 
 import app.activity.entity.Activity;
 import app.activity.entity.ActivityRepository;
+import app.activity.entity.ActivityTitleView;
+import app.activity.entity.ActivityView;
 import app.activity.entity.Type;
+import app.stats.service.StatsRollupService;
+import app.stats.service.StatsRollupService.RollupBatch;
 import app.stats.service.TimeFormatter;
 import app.user.entity.Role;
 import app.user.entity.User;
 import app.user.entity.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,7 +46,19 @@ class ActivityServiceTest {
     
     @Mock
     private TimeFormatter timeFormatter;
+
+    @Mock
+    private StatsRollupService statsRollupService;
     
+    @Mock
+    private ActivityImportReader activityImportReader;
+
+    @Mock
+    private ActivitySuggestionProvider activitySuggestionProvider;
+
+    @Mock
+    private EntityManager entityManager;
+
     @Mock
     private Clock clock;
     
@@ -89,6 +109,7 @@ class ActivityServiceTest {
             activity.getUser().equals(testUser) &&
             activity.getDate().equals(ZonedDateTime.now(clock))
         ));
+        verify(statsRollupService).recordActivity(argThat(activity -> activity.getTitle().equals("Running")));
     }
 
     @Test
@@ -101,6 +122,7 @@ class ActivityServiceTest {
         assertEquals("User not found", exception.getMessage());
         verify(userRepository).findById(1);
         verify(activityRepository, never()).save(any(Activity.class));
+        verifyNoInteractions(statsRollupService);
     }
 
     @Test
@@ -115,16 +137,73 @@ class ActivityServiceTest {
             .build();
 
         when(activityRepository.findById(1L)).thenReturn(Optional.of(existingActivity));
+        when(activityRepository.compareAndSetProgress(any(), any(), any(), any(), any())).thenReturn(1);
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("50 minutes");
 
         activityService.addProgress(1L, 20L, 1);
 
         verify(activityRepository).findById(1L);
-        verify(activityRepository).save(argThat(activity ->
+        verify(activityRepository).compareAndSetProgress(
+            1L,
+            Duration.ofMinutes(30),
+            existingActivity.getDate(),
+            Duration.ofMinutes(50),
+            ZonedDateTime.now(clock)
+        );
+        verify(activityRepository, never()).save(any(Activity.class));
+        verify(timeFormatter).formatDuration(Duration.ofMinutes(50));
+        verify(statsRollupService).retractActivity(existingActivity);
+        verify(statsRollupService).recordActivity(argThat(activity ->
             activity.getDuration().equals(Duration.ofMinutes(50)) &&
             activity.getDate().equals(ZonedDateTime.now(clock))
         ));
-        verify(timeFormatter).formatDuration(Duration.ofMinutes(50));
+    }
+
+    @Test
+    void addProgress_ConcurrentModification_RetriesWithFreshValues() {
+        ZonedDateTime lastUpdate = ZonedDateTime.now().minusHours(1);
+        Activity staleActivity = Activity.builder()
+            .id(1L).title("Running").type(Type.DUMBBELL)
+            .duration(Duration.ofMinutes(30)).date(lastUpdate).user(testUser)
+            .build();
+        Activity freshActivity = Activity.builder()
+            .id(1L).title("Running").type(Type.DUMBBELL)
+            .duration(Duration.ofMinutes(40)).date(lastUpdate.plusMinutes(5)).user(testUser)
+            .build();
+
+        when(activityRepository.findById(1L)).thenReturn(Optional.of(staleActivity), Optional.of(freshActivity));
+        when(activityRepository.compareAndSetProgress(any(), any(), any(), any(), any())).thenReturn(0, 1);
+        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("60 minutes");
+
+        activityService.addProgress(1L, 20L, 1);
+
+        verify(activityRepository, times(2)).findById(1L);
+        verify(activityRepository).compareAndSetProgress(
+            1L,
+            Duration.ofMinutes(40),
+            freshActivity.getDate(),
+            Duration.ofMinutes(60),
+            ZonedDateTime.now(clock)
+        );
+        verify(statsRollupService).retractActivity(freshActivity);
+        verify(statsRollupService, never()).retractActivity(staleActivity);
+        verify(statsRollupService).recordActivity(argThat(activity -> activity.getDuration().equals(Duration.ofMinutes(60))));
+    }
+
+    @Test
+    void addProgress_PersistentConflict_ThrowsException() {
+        Activity existingActivity = Activity.builder()
+            .id(1L).title("Running").type(Type.DUMBBELL)
+            .duration(Duration.ofMinutes(30)).date(ZonedDateTime.now().minusHours(1)).user(testUser)
+            .build();
+
+        when(activityRepository.findById(1L)).thenReturn(Optional.of(existingActivity));
+        when(activityRepository.compareAndSetProgress(any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> activityService.addProgress(1L, 20L, 1));
+
+        verify(activityRepository, times(5)).compareAndSetProgress(any(), any(), any(), any(), any());
+        verifyNoInteractions(statsRollupService);
     }
 
     @Test
@@ -136,7 +215,35 @@ class ActivityServiceTest {
 
         assertEquals("Activity not found", exception.getMessage());
         verify(activityRepository).findById(1L);
-        verify(activityRepository, never()).save(any(Activity.class));
+        verify(activityRepository, never()).compareAndSetProgress(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importActivities_MixedLines_SavesValidRowsInChunksAndReportsErrors() throws Exception {
+        ZonedDateTime date = ZonedDateTime.parse("2020-01-01T10:00:00Z");
+        List<ActivityImportLine> lines = new ArrayList<>();
+        for (int i = 1; i <= ActivityService.IMPORT_CHUNK_SIZE + 1; i++) {
+            lines.add(ActivityImportLine.valid(i, "Running", Type.DUMBBELL, Duration.ofMinutes(10), date));
+        }
+        lines.add(ActivityImportLine.invalid(ActivityService.IMPORT_CHUNK_SIZE + 2, "Unknown type: BED"));
+        InputStream body = InputStream.nullInputStream();
+        RollupBatch rollup = mock(RollupBatch.class);
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(statsRollupService.batch(1)).thenReturn(rollup);
+        when(activityImportReader.read(body, ActivityImportFormat.CSV)).thenReturn(lines.stream());
+
+        ActivityImportResponse response = activityService.importActivities(1, body, ActivityImportFormat.CSV);
+
+        assertEquals(ActivityService.IMPORT_CHUNK_SIZE + 1, response.imported());
+        assertEquals(1, response.failed());
+        assertEquals(List.of(new ActivityImportError(ActivityService.IMPORT_CHUNK_SIZE + 2, "Unknown type: BED")), response.errors());
+        verify(activityRepository, times(2)).saveAll(any(Iterable.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(rollup, times(ActivityService.IMPORT_CHUNK_SIZE + 1)).add(any(Activity.class));
+        verify(rollup).flush();
+        verify(statsRollupService, never()).recordActivity(any());
     }
 
     @Test
@@ -147,6 +254,7 @@ class ActivityServiceTest {
 
         verify(activityRepository).findById(1L);
         verify(activityRepository).delete(testActivity);
+        verify(statsRollupService).retractActivity(testActivity);
     }
 
     @Test
@@ -162,75 +270,92 @@ class ActivityServiceTest {
     }
 
     @Test
-    void getActivities_ValidUserId_ReturnsUserActivityResponse() {
-        Activity activity1 = Activity.builder()
-            .id(1L)
-            .title("Running")
-            .type(Type.DUMBBELL)
-            .duration(Duration.ofMinutes(30))
-            .date(ZonedDateTime.now())
-            .user(testUser)
-            .build();
+    void getActivities_ValidUserId_ReturnsTitlesAndFirstRecentPage() {
+        ZonedDateTime now = ZonedDateTime.now();
+        when(activityRepository.findTitleViews(1)).thenReturn(List.of(
+            new ActivityTitleView(2L, "Reading", Type.BOOK),
+            new ActivityTitleView(1L, "Running", Type.DUMBBELL)
+        ));
+        when(activityRepository.findRecentViews(1, Limit.of(ActivityService.DEFAULT_RECENT_LIMIT))).thenReturn(List.of(
+            new ActivityView(3L, "Running", Type.DUMBBELL, Duration.ofMinutes(20), now),
+            new ActivityView(2L, "Reading", Type.BOOK, Duration.ofMinutes(45), now.minusHours(1))
+        ));
+        when(timeFormatter.formatDuration(Duration.ofMinutes(20))).thenReturn("20 minutes");
+        when(timeFormatter.formatDuration(Duration.ofMinutes(45))).thenReturn("45 minutes");
 
-        Activity activity2 = Activity.builder()
-            .id(2L)
-            .title("Reading")
-            .type(Type.BOOK)
-            .duration(Duration.ofMinutes(45))
-            .date(ZonedDateTime.now().minusHours(1))
-            .user(testUser)
-            .build();
+        UserActivityResponse response = activityService.getActivities(1);
 
-        Activity activity3 = Activity.builder()
-            .id(3L)
-            .title("Running")
-            .type(Type.DUMBBELL)
-            .duration(Duration.ofMinutes(20))
-            .date(ZonedDateTime.now().minusHours(2))
-            .user(testUser)
-            .build();
+        assertEquals(List.of(
+            new ActivityResponse(2L, "Reading", Type.BOOK),
+            new ActivityResponse(1L, "Running", Type.DUMBBELL)
+        ), response.available());
+        assertEquals(List.of(
+            new RecentActivityResponse(3L, "Running", Type.DUMBBELL, "20 minutes"),
+            new RecentActivityResponse(2L, "Reading", Type.BOOK, "45 minutes")
+        ), response.recent());
+        verify(activityRepository, never()).findViewsByUserId(any());
+    }
 
-        List<Activity> activities = List.of(activity1, activity2, activity3);
-        when(activityRepository.findByUserId(1)).thenReturn(activities);
-        when(timeFormatter.formatDuration(Duration.ofMinutes(30))).thenReturn("30 minutes");
-        when(timeFormatter.formatDuration(Duration.ofMinutes(45))).thenReturn("45 minutes");
-        when(timeFormatter.formatDuration(Duration.ofMinutes(20))).thenReturn("20 minutes");
+    @Test
+    void getActivities_EmptyList_ReturnsEmptyResponse() {
+        when(activityRepository.findTitleViews(1)).thenReturn(List.of());
+        when(activityRepository.findRecentViews(eq(1), any(Limit.class))).thenReturn(List.of());
 
         UserActivityResponse response = activityService.getActivities(1);
 
         assertNotNull(response);
-        assertEquals(2, response.available().size());
-        assertEquals(3, response.recent().size());
+        assertTrue(response.available().isEmpty());
+        assertTrue(response.recent().isEmpty());
+    }
 
-        assertEquals("Reading", response.available().get(0).title());
-        assertEquals("Running", response.available().get(1).title());
+    @Test
+    void getRecentActivities_MoreRowsThanLimit_ReturnsCursorOfLastRow() {
+        ZonedDateTime now = ZonedDateTime.now();
+        when(activityRepository.findRecentViews(1, Limit.of(3))).thenReturn(List.of(
+            new ActivityView(5L, "A", Type.BOOK, Duration.ofMinutes(1), now),
+            new ActivityView(4L, "B", Type.BOOK, Duration.ofMinutes(1), now.minusMinutes(1)),
+            new ActivityView(3L, "C", Type.BOOK, Duration.ofMinutes(1), now.minusMinutes(2))
+        ));
+        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("1 minute");
 
-        assertEquals(1L, response.recent().get(0).id());
-        assertEquals(2L, response.recent().get(1).id());
-        assertEquals(3L, response.recent().get(2).id());
+        RecentActivitiesPage page = activityService.getRecentActivities(1, null, 2);
 
-        verify(activityRepository).findByUserId(1);
+        assertEquals(List.of(5L, 4L), page.activities().stream().map(RecentActivityResponse::id).toList());
+        assertEquals(new ActivityCursor(now.minusMinutes(1), 4L).encode(), page.nextCursor());
     }
 
     @Test
-    void getActivities_EmptyList_ReturnsEmptyResponse() {
-        when(activityRepository.findByUserId(1)).thenReturn(List.of());
+    void getRecentActivities_WithCursor_ContinuesAfterIt() {
+        ZonedDateTime date = ZonedDateTime.parse("2024-05-01T10:15:30.123456Z");
+        String cursor = new ActivityCursor(date, 4L).encode();
+        when(activityRepository.findRecentViewsBefore(1, date, 4L, Limit.of(3))).thenReturn(List.of(
+            new ActivityView(3L, "C", Type.BOOK, Duration.ofMinutes(1), date.minusMinutes(1))
+        ));
+        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("1 minute");
 
-        UserActivityResponse response = activityService.getActivities(1);
+        RecentActivitiesPage page = activityService.getRecentActivities(1, cursor, 2);
 
-        assertNotNull(response);
-        assertTrue(response.available().isEmpty());
-        assertTrue(response.recent().isEmpty());
-        verify(activityRepository).findByUserId(1);
+        assertEquals(1, page.activities().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getRecentActivities_InvalidLimitOrCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> activityService.getRecentActivities(1, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> activityService.getRecentActivities(1, null, ActivityService.MAX_RECENT_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> activityService.getRecentActivities(1, "not-a-cursor", 10));
+        verifyNoInteractions(activityRepository);
     }
 
     @Test
     void getRandomActivity_ValidRequest_ReturnsActivityName() {
         Integer userId = 1;
-        
+        when(activitySuggestionProvider.next()).thenReturn("Learn to juggle");
+
         String result = activityService.getRandomActivity(userId);
 
-        assertNotNull(result);
+        assertEquals("Learn to juggle", result);
     }
 
     @Test
@@ -257,89 +382,13 @@ class ActivityServiceTest {
             .build();
 
         when(activityRepository.findById(1L)).thenReturn(Optional.of(existingActivity));
+        when(activityRepository.compareAndSetProgress(any(), any(), any(), any(), any())).thenReturn(1);
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("50 minutes");
 
         activityService.addProgress(1L, 20L, 1);
 
-        verify(activityRepository).save(argThat(activity ->
-            activity.getDate().equals(ZonedDateTime.now(clock))
-        ));
-    }
-
-    @Test
-    void getActivities_SortsAvailableActivitiesByTitle() {
-        Activity activity1 = Activity.builder()
-            .id(1L).title("Zetetic").type(Type.BOOK).duration(Duration.ofMinutes(30))
-            .date(ZonedDateTime.now()).user(testUser).build();
-
-        Activity activity2 = Activity.builder()
-            .id(2L).title("Alpha").type(Type.DUMBBELL).duration(Duration.ofMinutes(45))
-            .date(ZonedDateTime.now()).user(testUser).build();
-
-        Activity activity3 = Activity.builder()
-            .id(3L).title("Beta").type(Type.MUSIC).duration(Duration.ofMinutes(20))
-            .date(ZonedDateTime.now()).user(testUser).build();
-
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(activity1, activity2, activity3));
-        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
-
-        UserActivityResponse response = activityService.getActivities(1);
-
-        assertEquals("Alpha", response.available().get(0).title());
-        assertEquals("Beta", response.available().get(1).title());
-        assertEquals("Zetetic", response.available().get(2).title());
-    }
-
-    @Test
-    void getActivities_SortsRecentActivitiesByDateDescending() {
-        ZonedDateTime now = ZonedDateTime.now();
-        
-        Activity activity1 = Activity.builder()
-            .id(1L).title("Old").type(Type.DUMBBELL).duration(Duration.ofMinutes(30))
-            .date(now.minusHours(3)).user(testUser).build();
-
-        Activity activity2 = Activity.builder()
-            .id(2L).title("Newest").type(Type.BOOK).duration(Duration.ofMinutes(45))
-            .date(now).user(testUser).build();
-
-        Activity activity3 = Activity.builder()
-            .id(3L).title("Middle").type(Type.MUSIC).duration(Duration.ofMinutes(20))
-            .date(now.minusHours(1)).user(testUser).build();
-
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(activity1, activity2, activity3));
-        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
-
-        UserActivityResponse response = activityService.getActivities(1);
-
-        assertEquals("Newest", response.recent().get(0).title());
-        assertEquals("Middle", response.recent().get(1).title());
-        assertEquals("Old", response.recent().get(2).title());
-    }
-
-    @Test
-    void getActivities_DeduplicatesAvailableActivities() {
-        Activity activity1 = Activity.builder()
-            .id(1L).title("Running").type(Type.DUMBBELL).duration(Duration.ofMinutes(30))
-            .date(ZonedDateTime.now()).user(testUser).build();
-
-        Activity activity2 = Activity.builder()
-            .id(2L).title("Running").type(Type.DUMBBELL).duration(Duration.ofMinutes(45))
-            .date(ZonedDateTime.now().minusHours(1)).user(testUser).build();
-
-        Activity activity3 = Activity.builder()
-            .id(3L).title("Swimming").type(Type.DUMBBELL).duration(Duration.ofMinutes(20))
-            .date(ZonedDateTime.now().minusHours(2)).user(testUser).build();
-
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(activity1, activity2, activity3));
-        when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
-
-        UserActivityResponse response = activityService.getActivities(1);
-
-        assertEquals(2, response.available().size());
-        assertEquals(3, response.recent().size());
-        
-        assertTrue(response.available().stream().anyMatch(a -> a.title().equals("Running")));
-        assertTrue(response.available().stream().anyMatch(a -> a.title().equals("Swimming")));
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        verify(activityRepository).compareAndSetProgress(eq(1L), any(), any(), any(), eq(now));
     }
 
     @Test
@@ -354,13 +403,17 @@ class ActivityServiceTest {
             .build();
 
         when(activityRepository.findById(1L)).thenReturn(Optional.of(existingActivity));
+        when(activityRepository.compareAndSetProgress(any(), any(), any(), any(), any())).thenReturn(1);
         when(timeFormatter.formatDuration(Duration.ofMinutes(30))).thenReturn("30 minutes");
 
         activityService.addProgress(1L, 0L, 1);
 
-        verify(activityRepository).save(argThat(activity ->
-            activity.getDuration().equals(Duration.ofMinutes(30)) &&
-            activity.getDate().equals(ZonedDateTime.now(clock))
-        ));
+        verify(activityRepository).compareAndSetProgress(
+            1L,
+            Duration.ofMinutes(30),
+            existingActivity.getDate(),
+            Duration.ofMinutes(30),
+            ZonedDateTime.now(clock)
+        );
     }
 } 
\ No newline at end of file
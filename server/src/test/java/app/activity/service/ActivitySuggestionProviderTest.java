@@ -0,0 +1,149 @@
+package app.activity.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ActivitySuggestionProviderTest {
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Clock clock = mock(Clock.class);
+
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile long delayMillis;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(clock.instant()).thenReturn(NOW);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/random", this::respond);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void refill_HealthyApi_FillsBufferAndServesFromIt() {
+        ActivitySuggestionProvider provider = provider(url(), Duration.ofSeconds(2));
+
+        provider.refill();
+
+        assertEquals(3, provider.buffered());
+        assertEquals(3, requests.get());
+        assertEquals("Learn to juggle", provider.next());
+        assertEquals(2, provider.buffered());
+    }
+
+    @Test
+    void refill_RepeatedFailures_OpensCircuitUntilOpenDurationPassed() {
+        ActivitySuggestionProvider provider = provider(url(), Duration.ofSeconds(2));
+        status = 500;
+
+        provider.refill();
+        provider.refill();
+
+        assertTrue(provider.isOpen());
+        assertEquals(2, requests.get());
+
+        provider.refill();
+
+        assertEquals(2, requests.get());
+        assertFalse(provider.next().isBlank());
+
+        status = 200;
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(2)));
+        provider.refill();
+
+        assertFalse(provider.isOpen());
+        assertEquals(3, provider.buffered());
+    }
+
+    @Test
+    void refill_SlowApi_GivesUpAfterReadTimeout() {
+        ActivitySuggestionProvider provider = provider(url(), Duration.ofMillis(200));
+        delayMillis = 2000;
+
+        long startTime = System.nanoTime();
+        provider.refill();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - startTime).compareTo(Duration.ofMillis(1500)) < 0);
+        assertEquals(0, provider.buffered());
+    }
+
+    @Test
+    void scheduleRefill_SlowApi_ReturnsWithoutWaitingForTheRefill() throws InterruptedException {
+        ActivitySuggestionProvider provider = provider(url(), Duration.ofSeconds(2));
+        delayMillis = 300;
+
+        long startTime = System.nanoTime();
+        provider.scheduleRefill();
+        provider.scheduleRefill();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - startTime).compareTo(Duration.ofMillis(200)) < 0);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (provider.buffered() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, provider.buffered());
+        assertEquals(3, requests.get());
+        provider.close();
+    }
+
+    @Test
+    void next_UnreachableApi_ReturnsOfflineSuggestion() {
+        ActivitySuggestionProvider provider = provider("http://localhost:1/random", Duration.ofSeconds(2));
+
+        provider.refill();
+
+        assertEquals(0, provider.buffered());
+        assertNotNull(provider.next());
+        assertFalse(provider.next().isBlank());
+    }
+
+    private ActivitySuggestionProvider provider(String url, Duration readTimeout) {
+        return new ActivitySuggestionProvider(clock, url, Duration.ofMillis(500), readTimeout, 3, 2, Duration.ofMinutes(1));
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/random";
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = "{\"activity\":\"Learn to juggle\",\"type\":\"education\",\"participants\":1}"
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import app.excpetions.UserAlreadyExists;
 import app.user.entity.Role;
 import app.user.entity.User;
 import app.user.entity.UserRepository;
+import app.user.service.UserNameIndex;
 import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,9 @@ class AuthenticationServiceTest {
     
     @Mock
     private AuthenticationManager authenticationManager;
+
+    @Mock
+    private UserNameIndex userNameIndex;
     
     @InjectMocks
     private AuthenticationService authenticationService;
@@ -0,0 +1,146 @@
+package app.challenge.service;
+
+import app.challenge.entity.Challenge;
+import app.challenge.entity.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeEventHubTest {
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private ChallengeLeaderboard challengeLeaderboard;
+
+    private final List<Runnable> sendTasks = new ArrayList<>();
+
+    private ChallengeEventHub challengeEventHub;
+
+    @BeforeEach
+    void setUp() {
+        challengeEventHub = new ChallengeEventHub(challengeRepository, challengeLeaderboard, sendTasks::add, 4);
+    }
+
+    @Test
+    void publish_WithoutSubscribers_IsIgnored() {
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+
+        verifyNoInteractions(challengeRepository, challengeLeaderboard);
+    }
+
+    @Test
+    void flush_CoalescesBurstIntoSingleRead() {
+        Challenge challenge = challenge(1L, 100);
+        when(challengeLeaderboard.totalProgress(1L)).thenReturn(10L, 40L);
+        when(challengeLeaderboard.top(1L, 3)).thenReturn(List.of(new LeaderboardEntry(1, 10)));
+        when(challengeRepository.findAllById(List.of(1L))).thenReturn(List.of(challenge));
+        challengeEventHub.subscribe(List.of(challenge));
+
+        challengeEventHub.publish(1L);
+        challengeEventHub.publish(1L);
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+        challengeEventHub.flush();
+
+        verify(challengeRepository, times(1)).findAllById(List.of(1L));
+        verify(challengeLeaderboard, times(2)).totalProgress(1L);
+    }
+
+    @Test
+    void subscribe_QueuesCurrentStateForTheNewClient() {
+        Challenge challenge = challenge(1L, 100);
+        List<LeaderboardEntry> leaderboard = List.of(new LeaderboardEntry(1, 40));
+        when(challengeLeaderboard.totalProgress(1L)).thenReturn(40L);
+        when(challengeLeaderboard.top(1L, 3)).thenReturn(leaderboard);
+
+        SseEmitter emitter = challengeEventHub.subscribe(List.of(challenge));
+
+        assertThat(challengeEventHub.pending(emitter)).containsExactly(
+            new ChallengeEventHub.PendingEvent(ChallengeEventHub.PROGRESS_EVENT, new ChallengeProgressEvent(1L, 40, 0)),
+            new ChallengeEventHub.PendingEvent(ChallengeEventHub.LEADERBOARD_EVENT, new ChallengeLeaderboardEvent(1L, leaderboard)),
+            new ChallengeEventHub.PendingEvent(ChallengeEventHub.COMPLETION_EVENT, new ChallengeCompletionEvent(1L, false))
+        );
+        assertThat(sendTasks).hasSize(1);
+    }
+
+    @Test
+    void flush_LeavesSendingToTheSendExecutor() {
+        Challenge challenge = challenge(1L, 100);
+        when(challengeLeaderboard.totalProgress(1L)).thenReturn(10L, 40L);
+        when(challengeLeaderboard.top(1L, 3)).thenReturn(List.of(new LeaderboardEntry(1, 10)));
+        when(challengeRepository.findAllById(List.of(1L))).thenReturn(List.of(challenge));
+        SseEmitter emitter = challengeEventHub.subscribe(List.of(challenge));
+
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+
+        assertThat(challengeEventHub.pending(emitter)).hasSize(4)
+            .last().isEqualTo(new ChallengeEventHub.PendingEvent(
+                ChallengeEventHub.PROGRESS_EVENT, new ChallengeProgressEvent(1L, 40, 30)));
+        assertThat(sendTasks).hasSize(1);
+
+        sendTasks.forEach(Runnable::run);
+
+        assertThat(challengeEventHub.pending(emitter)).isEmpty();
+    }
+
+    @Test
+    void flush_ClientThatFallsBehind_IsDropped() {
+        Challenge challenge = challenge(1L, 1000);
+        when(challengeLeaderboard.totalProgress(1L)).thenReturn(10L, 20L, 30L);
+        when(challengeLeaderboard.top(1L, 3)).thenReturn(List.of(new LeaderboardEntry(1, 10)));
+        when(challengeRepository.findAllById(List.of(1L))).thenReturn(List.of(challenge));
+        SseEmitter emitter = challengeEventHub.subscribe(List.of(challenge));
+
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+        challengeEventHub.publish(1L);
+        challengeEventHub.flush();
+
+        assertThat(challengeEventHub.pending(emitter)).isEmpty();
+        verify(challengeLeaderboard, times(3)).totalProgress(1L);
+    }
+
+    @Test
+    void events_OnlyContainWhatChanged() {
+        List<LeaderboardEntry> leaderboard = List.of(new LeaderboardEntry(1, 60));
+        var previous = new ChallengeEventHub.ChallengeState(60, leaderboard, false);
+
+        assertThat(ChallengeEventHub.events(1L, previous, previous)).isEmpty();
+        assertThat(ChallengeEventHub.events(1L, previous, new ChallengeEventHub.ChallengeState(70, leaderboard, false)))
+            .containsExactly(Map.entry(ChallengeEventHub.PROGRESS_EVENT, new ChallengeProgressEvent(1L, 70, 10)));
+    }
+
+    @Test
+    void events_ReportLeaderboardChangeAndCompletion() {
+        var previous = new ChallengeEventHub.ChallengeState(90, List.of(new LeaderboardEntry(1, 60)), false);
+        List<LeaderboardEntry> leaderboard = List.of(new LeaderboardEntry(2, 70), new LeaderboardEntry(1, 60));
+        var current = new ChallengeEventHub.ChallengeState(130, leaderboard, true);
+
+        assertThat(ChallengeEventHub.events(1L, previous, current)).containsExactly(
+            Map.entry(ChallengeEventHub.PROGRESS_EVENT, new ChallengeProgressEvent(1L, 130, 40)),
+            Map.entry(ChallengeEventHub.LEADERBOARD_EVENT, new ChallengeLeaderboardEvent(1L, leaderboard)),
+            Map.entry(ChallengeEventHub.COMPLETION_EVENT, new ChallengeCompletionEvent(1L, true))
+        );
+    }
+
+    private Challenge challenge(Long id, Integer goal) {
+        return Challenge.builder().id(id).title("Challenge " + id).goal(goal).unit("km").build();
+    }
+}
@@ -0,0 +1,209 @@
+package app.challenge.service;
+
+import app.challenge.entity.ChallengeParticipantView;
+import app.challenge.entity.ChallengeParticipantsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeLeaderboardTest {
+
+    @Mock
+    private ChallengeParticipantsRepository challengeParticipantsRepository;
+
+    private ChallengeLeaderboard challengeLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        challengeLeaderboard = new ChallengeLeaderboard(challengeParticipantsRepository, TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void top_LoadsBoardLazilyAndOrdersByProgress() {
+        when(challengeParticipantsRepository.findViewsByChallengeIdIn(List.of(1L))).thenReturn(List.of(
+            view(1L, 10, 30),
+            view(1L, 11, 50),
+            view(1L, 12, 20),
+            view(1L, 13, 50)
+        ));
+
+        assertThat(challengeLeaderboard.top(1L, 3)).containsExactly(
+            new LeaderboardEntry(11, 50),
+            new LeaderboardEntry(13, 50),
+            new LeaderboardEntry(10, 30)
+        );
+        assertThat(challengeLeaderboard.totalProgress(1L)).isEqualTo(150);
+        assertThat(challengeLeaderboard.rank(1L, 12)).isEqualTo(4);
+        assertThat(challengeLeaderboard.rank(1L, 99)).isZero();
+        verify(challengeParticipantsRepository, times(1)).findViewsByChallengeIdIn(List.of(1L));
+    }
+
+    @Test
+    void standings_UsesGivenParticipantsWithoutQuerying() {
+        ChallengeLeaderboard.Standings standings = challengeLeaderboard.standings(1L,
+            List.of(view(1L, 10, 5), view(1L, 11, 7)), 3);
+
+        assertThat(standings.top()).containsExactly(
+            new LeaderboardEntry(11, 7),
+            new LeaderboardEntry(10, 5)
+        );
+        assertThat(standings.totalProgress()).isEqualTo(12);
+        assertThat(standings.progress(10)).isEqualTo(5);
+        verifyNoInteractions(challengeParticipantsRepository);
+    }
+
+    @Test
+    void standings_ComputedFromParticipantsWhenBoardHasOtherMembers() {
+        challengeLeaderboard.standings(1L, List.of(view(1L, 10, 5), view(1L, 11, 7)), 3);
+        challengeLeaderboard.setProgress(1L, 10, 40);
+
+        ChallengeLeaderboard.Standings standings = challengeLeaderboard.standings(1L, List.of(view(1L, 10, 5)), 3);
+
+        assertThat(standings.top()).containsExactly(new LeaderboardEntry(10, 5));
+        assertThat(standings.totalProgress()).isEqualTo(5);
+        assertThat(standings.progress(11)).isNull();
+    }
+
+    @Test
+    void standings_ProgressDiffersFromRows_UsesRowsAndReloadsBoard() {
+        challengeLeaderboard.standings(1L, List.of(view(1L, 10, 5), view(1L, 11, 7)), 3);
+        challengeLeaderboard.setProgress(1L, 10, 40);
+
+        ChallengeLeaderboard.Standings standings = challengeLeaderboard.standings(1L,
+            List.of(view(1L, 10, 5), view(1L, 11, 7)), 3);
+
+        assertThat(standings.progress(10)).isEqualTo(5);
+        assertThat(standings.totalProgress()).isEqualTo(12);
+        assertThat(standings.top()).first().isEqualTo(new LeaderboardEntry(11, 7));
+
+        when(challengeParticipantsRepository.findViewsByChallengeIdIn(List.of(1L)))
+            .thenReturn(List.of(view(1L, 10, 6), view(1L, 11, 7)));
+        assertThat(challengeLeaderboard.totalProgress(1L)).isEqualTo(13);
+    }
+
+    @Test
+    void raiseProgress_IgnoresOutOfOrderIncrementResults() {
+        challengeLeaderboard.standings(1L, List.of(view(1L, 10, 5)), 0);
+
+        challengeLeaderboard.raiseProgress(1L, 10, 20);
+        challengeLeaderboard.raiseProgress(1L, 10, 15);
+
+        assertThat(challengeLeaderboard.top(1L, 1)).containsExactly(new LeaderboardEntry(10, 20));
+        assertThat(challengeLeaderboard.totalProgress(1L)).isEqualTo(20);
+    }
+
+    @Test
+    void updates_OnlyApplyToLoadedBoards() {
+        challengeLeaderboard.setProgress(1L, 10, 20);
+        challengeLeaderboard.removeParticipant(1L, 10);
+
+        verifyNoInteractions(challengeParticipantsRepository);
+    }
+
+    @Test
+    void rebuild_ReplacesBoardsFromAllParticipants() {
+        challengeLeaderboard.standings(1L, List.of(view(1L, 10, 500)), 0);
+        when(challengeParticipantsRepository.streamAllViews()).thenReturn(Stream.of(
+            view(1L, 10, 5),
+            view(2L, 20, 8)
+        ));
+
+        challengeLeaderboard.rebuild();
+
+        assertThat(challengeLeaderboard.totalProgress(1L)).isEqualTo(5);
+        assertThat(challengeLeaderboard.top(2L, 3)).containsExactly(new LeaderboardEntry(20, 8));
+        verify(challengeParticipantsRepository, never()).findViewsByChallengeIdIn(any());
+    }
+
+    @Test
+    void rebuild_KeepsServingAndKeepsWritesMadeWhileLoading() {
+        challengeLeaderboard.standings(1L, List.of(view(1L, 10, 5), view(1L, 11, 7)), 0);
+        when(challengeParticipantsRepository.streamAllViews()).thenAnswer(invocation -> Stream.of(
+            view(1L, 10, 5),
+            view(1L, 11, 7),
+            view(2L, 20, 8)
+        ).peek(participant -> {
+            if (participant.userId() == 11) {
+                // the old board still answers while the new one loads, and takes writes that the snapshot misses
+                assertThat(challengeLeaderboard.totalProgress(1L)).isEqualTo(12);
+                challengeLeaderboard.setProgress(1L, 10, 30);
+                challengeLeaderboard.removeParticipant(2L, 20);
+            }
+        }));
+
+        challengeLeaderboard.rebuild();
+
+        assertThat(challengeLeaderboard.top(1L, 2)).containsExactly(
+            new LeaderboardEntry(10, 30),
+            new LeaderboardEntry(11, 7)
+        );
+        assertThat(challengeLeaderboard.participantCount(2L)).isZero();
+        verify(challengeParticipantsRepository, never()).findViewsByChallengeIdIn(any());
+    }
+
+    @Test
+    void randomUpdates_MatchFullSort() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        List<ChallengeParticipantView> initial = new ArrayList<>();
+        for (int userId = 1; userId <= 200; userId++) {
+            int progress = random.nextInt(100);
+            expected.put(userId, progress);
+            initial.add(view(1L, userId, progress));
+        }
+        challengeLeaderboard.standings(1L, initial, 0);
+
+        for (int i = 0; i < 2_000; i++) {
+            int userId = 1 + random.nextInt(250);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    int progress = random.nextInt(100);
+                    challengeLeaderboard.setProgress(1L, userId, progress);
+                    expected.put(userId, progress);
+                }
+                case 1 -> {
+                    int progress = expected.getOrDefault(userId, 0) + random.nextInt(10);
+                    challengeLeaderboard.raiseProgress(1L, userId, progress);
+                    expected.merge(userId, progress, Math::max);
+                }
+                default -> {
+                    challengeLeaderboard.removeParticipant(1L, userId);
+                    expected.remove(userId);
+                }
+            }
+        }
+
+        List<LeaderboardEntry> sorted = expected.entrySet().stream()
+            .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey))
+            .map(entry -> new LeaderboardEntry(entry.getKey(), entry.getValue()))
+            .toList();
+
+        assertThat(challengeLeaderboard.top(1L, 10)).containsExactlyElementsOf(sorted.subList(0, 10));
+        assertThat(challengeLeaderboard.participantCount(1L)).isEqualTo(sorted.size());
+        assertThat(challengeLeaderboard.totalProgress(1L))
+            .isEqualTo(expected.values().stream().mapToLong(Integer::longValue).sum());
+        for (int rank = 1; rank <= sorted.size(); rank++) {
+            assertThat(challengeLeaderboard.rank(1L, sorted.get(rank - 1).userId())).isEqualTo(rank);
+        }
+    }
+
+    private ChallengeParticipantView view(Long challengeId, Integer userId, Integer progress) {
+        return new ChallengeParticipantView(challengeId, userId, "User " + userId, progress);
+    }
+}
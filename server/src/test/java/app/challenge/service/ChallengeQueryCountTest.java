@@ -0,0 +1,162 @@
+package app.challenge.service;
+
+import app.challenge.entity.Challenge;
+import app.challenge.entity.ChallengeParticipants;
+import app.challenge.entity.ChallengeParticipantsRepository;
+import app.challenge.entity.ChallengeRepository;
+import app.user.entity.Role;
+import app.user.entity.User;
+import app.user.entity.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ChallengeQueryCountTest {
+
+    private static final int CHALLENGES = 10;
+    private static final int PARTICIPANTS = 20;
+    private static final int ROSTER_SIZE = 200;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    @Autowired
+    private ChallengeParticipantsRepository challengeParticipantsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ChallengeService challengeService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        ChallengeLeaderboard challengeLeaderboard = new ChallengeLeaderboard(challengeParticipantsRepository, TransactionOperations.withoutTransaction());
+        challengeService = new ChallengeService(
+            challengeRepository,
+            challengeParticipantsRepository,
+            userRepository,
+            new ChallengeMapper(challengeParticipantsRepository, challengeLeaderboard),
+            challengeLeaderboard,
+            new ChallengeEventHub(challengeRepository, challengeLeaderboard, Runnable::run, 100)
+        );
+        statistics = entityManager.getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+
+    @Test
+    void getChallenges_ManyChallengesAndParticipants_RunsConstantNumberOfQueries() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            users.add(entityManager.persist(User.builder()
+                .email("user" + i + "@example.com")
+                .name("User " + i)
+                .role(Role.USER)
+                .build()));
+        }
+        for (int c = 0; c < CHALLENGES; c++) {
+            Challenge challenge = entityManager.persist(Challenge.builder()
+                .title("Challenge " + c)
+                .goal(100)
+                .unit("km")
+                .createdAt(ZonedDateTime.now())
+                .build());
+            for (int u = 0; u < users.size(); u++) {
+                entityManager.persist(ChallengeParticipants.builder()
+                    .challenge(challenge)
+                    .user(users.get(u))
+                    .progress(c + u)
+                    .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ChallengeResponse> responses = challengeService.getChallenges(users.get(0).getId());
+
+        assertThat(responses).hasSize(CHALLENGES);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.participants()).hasSize(PARTICIPANTS);
+            assertThat(response.participants()).extracting(ParticipantResponse::username).doesNotContainNull();
+            assertThat(response.leaderboard()).hasSize(3);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addChallenge_LargeRoster_BatchesParticipantInserts() {
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            userIds.add(entityManager.persist(User.builder()
+                .email("member" + i + "@example.com")
+                .name("Member " + i)
+                .role(Role.USER)
+                .build()).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        challengeService.addChallenge(userIds.get(0),
+            new ChallengeRequest("Team Challenge", "Everyone together", 1000, "km", userIds.subList(1, ROSTER_SIZE)));
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROSTER_SIZE + 1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROSTER_SIZE / 10);
+    }
+
+    @Test
+    void modifyChallenge_LargeRoster_ChecksMembershipInOneQuery() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            users.add(entityManager.persist(User.builder()
+                .email("member" + i + "@example.com")
+                .name("Member " + i)
+                .role(Role.USER)
+                .build()));
+        }
+        Challenge challenge = entityManager.persist(Challenge.builder()
+            .title("Team Challenge")
+            .goal(1000)
+            .unit("km")
+            .createdAt(ZonedDateTime.now())
+            .build());
+        for (User user : users.subList(0, ROSTER_SIZE / 2)) {
+            entityManager.persist(ChallengeParticipants.builder().challenge(challenge).user(user).progress(0).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<String> names = users.stream().map(User::getName).toList();
+        challengeService.modifyChallenge(challenge.getId(), new ChallengeModificationRequest(null, null, null, null, names));
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROSTER_SIZE / 2);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROSTER_SIZE / 10);
+        assertThat(challengeParticipantsRepository.findByChallengeId(challenge.getId())).hasSize(ROSTER_SIZE);
+    }
+}
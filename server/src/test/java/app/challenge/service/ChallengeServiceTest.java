@@ -12,12 +12,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,6 +42,12 @@ class ChallengeServiceTest {
     @Mock
     private ChallengeMapper challengeMapper;
 
+    @Mock
+    private ChallengeLeaderboard challengeLeaderboard;
+
+    @Mock
+    private ChallengeEventHub challengeEventHub;
+
     @InjectMocks
     private ChallengeService challengeService;
 
@@ -106,7 +116,28 @@ class ChallengeServiceTest {
 
         // Assert
         verify(challengeRepository).save(any(Challenge.class));
-        verify(challengeParticipantsRepository, times(2)).save(any(ChallengeParticipants.class));
+        verify(challengeParticipantsRepository).saveAll(argThat(participants ->
+                participants instanceof List<?> list && list.size() == 2));
+        verify(challengeParticipantsRepository, never()).save(any(ChallengeParticipants.class));
+    }
+
+    @Test
+    void addChallenge_InTransaction_ShouldUpdateLeaderboardAndPublishOnlyAfterCommit() {
+        // Arrange
+        when(userRepository.findAllById(Arrays.asList(2, 1))).thenReturn(Arrays.asList(testUser2, testUser));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            challengeService.addChallenge(1, testChallengeRequest);
+
+            // Assert
+            verifyNoInteractions(challengeLeaderboard, challengeEventHub);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(challengeLeaderboard, times(2)).setProgress(any(), anyInt(), eq(0));
+            verify(challengeEventHub).publish(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -123,11 +154,10 @@ class ChallengeServiceTest {
     @Test
     void getChallenges_WhenUserHasChallenges_ShouldReturnChallengeResponses() {
         // Arrange
-        List<ChallengeParticipants> participants = Arrays.asList(testParticipant);
         ChallengeResponse challengeResponse = new ChallengeResponse(1L, "Test", "Desc", 100, "steps", List.of(), 50, List.of(), false);
         
-        when(challengeParticipantsRepository.findByUserId(1)).thenReturn(participants);
-        when(challengeMapper.mapToChallengeResponse(testChallenge)).thenReturn(challengeResponse);
+        when(challengeRepository.findByParticipantUserId(1)).thenReturn(List.of(testChallenge));
+        when(challengeMapper.mapToChallengeResponses(List.of(testChallenge))).thenReturn(List.of(challengeResponse));
 
         // Act
         List<ChallengeResponse> result = challengeService.getChallenges(1);
@@ -135,13 +165,13 @@ class ChallengeServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(challengeMapper).mapToChallengeResponse(testChallenge);
+        verify(challengeMapper).mapToChallengeResponses(List.of(testChallenge));
     }
 
     @Test
     void getChallenges_WhenUserHasNoChallenges_ShouldReturnEmptyList() {
         // Arrange
-        when(challengeParticipantsRepository.findByUserId(1)).thenReturn(List.of());
+        when(challengeRepository.findByParticipantUserId(1)).thenReturn(List.of());
 
         // Act
         List<ChallengeResponse> result = challengeService.getChallenges(1);
@@ -154,27 +184,103 @@ class ChallengeServiceTest {
     @Test
     void updateProgress_WhenValidUserAndChallenge_ShouldUpdateProgress() {
         // Arrange
-        when(challengeParticipantsRepository.findByUserIdAndChallengeId(1, 1L))
-                .thenReturn(Optional.of(testParticipant));
+        when(challengeParticipantsRepository.updateProgress(1, 1L, 75)).thenReturn(1);
 
         // Act
         challengeService.updateProgress(1, 1L, 75);
 
         // Assert
-        assertEquals(75, testParticipant.getProgress());
-        verify(challengeParticipantsRepository).save(testParticipant);
+        verify(challengeParticipantsRepository).updateProgress(1, 1L, 75);
+        verify(challengeParticipantsRepository, never()).save(any());
+        verify(challengeLeaderboard).setProgress(1L, 1, 75);
+        verify(challengeEventHub).publish(1L);
     }
 
     @Test
     void updateProgress_WhenUserNotParticipating_ShouldThrowException() {
         // Arrange
-        when(challengeParticipantsRepository.findByUserIdAndChallengeId(1, 1L))
-                .thenReturn(Optional.empty());
+        when(challengeParticipantsRepository.updateProgress(1, 1L, 75)).thenReturn(0);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> challengeService.updateProgress(1, 1L, 75));
         assertEquals("User 1 isn't participating in challenge 1", exception.getMessage());
+        verifyNoInteractions(challengeEventHub);
+    }
+
+    @Test
+    void incrementProgress_WhenValidUserAndChallenge_ShouldReturnNewProgress() {
+        // Arrange
+        when(challengeParticipantsRepository.incrementProgress(1, 1L, 5)).thenReturn(Optional.of(55));
+
+        // Act
+        ChallengeProgressResponse result = challengeService.incrementProgress(1, 1L, 5);
+
+        // Assert
+        assertEquals(1L, result.challengeId());
+        assertEquals(55, result.progress());
+        verify(challengeParticipantsRepository, never()).save(any());
+        verify(challengeLeaderboard).raiseProgress(1L, 1, 55);
+        verify(challengeEventHub).publish(1L);
+    }
+
+    @Test
+    void incrementProgress_WhenUserNotParticipating_ShouldThrowException() {
+        // Arrange
+        when(challengeParticipantsRepository.incrementProgress(1, 1L, 5)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> challengeService.incrementProgress(1, 1L, 5));
+        assertEquals("User 1 isn't participating in challenge 1", exception.getMessage());
+    }
+
+    @Test
+    void incrementProgress_WhenAmountNotPositive_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> challengeService.incrementProgress(1, 1L, 0));
+        assertEquals("Progress increment must be positive", exception.getMessage());
+        verifyNoInteractions(challengeParticipantsRepository);
+    }
+
+    @Test
+    void getRank_WhenUserParticipating_ShouldReturnRank() {
+        // Arrange
+        when(challengeLeaderboard.rank(1L, 1)).thenReturn(2);
+        when(challengeLeaderboard.participantCount(1L)).thenReturn(5);
+
+        // Act
+        ChallengeRankResponse result = challengeService.getRank(1, 1L);
+
+        // Assert
+        assertEquals(2, result.rank());
+        assertEquals(5, result.participants());
+    }
+
+    @Test
+    void streamChallengeEvents_ShouldSubscribeToUserChallenges() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(challengeRepository.findByParticipantUserId(1)).thenReturn(List.of(testChallenge));
+        when(challengeEventHub.subscribe(List.of(testChallenge))).thenReturn(emitter);
+
+        // Act
+        SseEmitter result = challengeService.streamChallengeEvents(1);
+
+        // Assert
+        assertSame(emitter, result);
+    }
+
+    @Test
+    void getRank_WhenUserNotParticipating_ShouldThrowException() {
+        // Arrange
+        when(challengeLeaderboard.rank(1L, 1)).thenReturn(0);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> challengeService.getRank(1, 1L));
+        assertEquals("User 1 isn't participating in challenge 1", exception.getMessage());
     }
 
     @Test
@@ -182,8 +288,8 @@ class ChallengeServiceTest {
         // Arrange
         when(challengeRepository.findById(1L)).thenReturn(Optional.of(testChallenge));
         when(userRepository.findAllByNameIn(Arrays.asList("User3"))).thenReturn(Arrays.asList(testUser2));
-        when(challengeParticipantsRepository.existsByUserIdAndChallengeId(testUser2.getId(), testChallenge.getId()))
-                .thenReturn(false);
+        when(challengeParticipantsRepository.findUserIdsByChallengeIdAndUserIdIn(1L, List.of(testUser2.getId())))
+                .thenReturn(Set.of());
 
         // Act
         challengeService.modifyChallenge(1L, testModificationRequest);
@@ -194,7 +300,23 @@ class ChallengeServiceTest {
         assertEquals(200, testChallenge.getGoal());
         assertEquals("km", testChallenge.getUnit());
         verify(challengeRepository).save(testChallenge);
-        verify(challengeParticipantsRepository).save(any(ChallengeParticipants.class));
+        verify(challengeParticipantsRepository).saveAll(anyList());
+    }
+
+    @Test
+    void modifyChallenge_WhenParticipantsAlreadyJoined_ShouldNotInsertThem() {
+        // Arrange
+        when(challengeRepository.findById(1L)).thenReturn(Optional.of(testChallenge));
+        when(userRepository.findAllByNameIn(Arrays.asList("User3"))).thenReturn(Arrays.asList(testUser2));
+        when(challengeParticipantsRepository.findUserIdsByChallengeIdAndUserIdIn(1L, List.of(testUser2.getId())))
+                .thenReturn(Set.of(testUser2.getId()));
+
+        // Act
+        challengeService.modifyChallenge(1L, testModificationRequest);
+
+        // Assert
+        verify(challengeParticipantsRepository, never()).saveAll(any());
+        verifyNoInteractions(challengeLeaderboard);
     }
 
     @Test
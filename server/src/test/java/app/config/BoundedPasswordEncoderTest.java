@@ -0,0 +1,86 @@
+package app.config;
+
+import app.excpetions.PasswordHashingOverloaded;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnHashingPool() {
+        String hash = encoder.encode("password123");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_CostDiffersFromConfigured_ReturnsTrue() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password123"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("password123"))).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void encode_PoolAndQueueFull_RejectsImmediately() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CharSequence blockingPassword = new BlockingPassword(started, release);
+
+        Thread running = Thread.ofVirtual().start(() -> encoder.encode(blockingPassword));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread queued = Thread.ofVirtual().start(() -> encoder.encode("queued"));
+        while (queued.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordHashingOverloaded.class);
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertThat(encoder.matches("password123", encoder.encode("password123"))).isTrue();
+    }
+
+    private record BlockingPassword(CountDownLatch started, CountDownLatch release) implements CharSequence {
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password123";
+        }
+    }
+}
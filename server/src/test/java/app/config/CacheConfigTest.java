@@ -0,0 +1,34 @@
+package app.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Warsaw");
+
+    @Test
+    void untilNextDay_ExpiresAtNextMidnightOfClockZone() {
+        Clock clock = Clock.fixed(Instant.parse("2025-03-10T21:30:00Z"), ZONE);
+        CacheConfig.UntilNextDay expiry = new CacheConfig.UntilNextDay(clock);
+
+        long nanos = expiry.expireAfterCreate(1, "stats", 0);
+
+        assertThat(Duration.ofNanos(nanos)).isEqualTo(Duration.ofMinutes(90));
+    }
+
+    @Test
+    void untilNextDay_UpdateRestartsFromNowAndReadKeepsRemainingTime() {
+        Clock clock = Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZONE);
+        CacheConfig.UntilNextDay expiry = new CacheConfig.UntilNextDay(clock);
+
+        assertThat(Duration.ofNanos(expiry.expireAfterUpdate(1, "stats", 0, 5))).isEqualTo(Duration.ofHours(11));
+        assertThat(expiry.expireAfterRead(1, "stats", 0, 5)).isEqualTo(5);
+    }
+}
@@ -0,0 +1,42 @@
+package app.config;
+
+import app.user.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+    private static final String SECRET_KEY = "3075495a6e4a293e27294f792f76756b5b39377e5d5b6a7e6930654947";
+
+    private final JwtService jwtService = new JwtService(null, null, SECRET_KEY);
+    private final User user = User.builder().id(42).build();
+
+    @Test
+    void parseVerifiedClaims_ValidToken_ReturnsSubject() {
+        String token = jwtService.generateAccessToken(user);
+
+        assertThat(jwtService.parseVerifiedClaims(token).getSubject()).isEqualTo("42");
+        assertThat(jwtService.extractUserId(token)).isEqualTo("42");
+        assertThat(jwtService.isTokenValid(token)).isTrue();
+    }
+
+    @Test
+    void parseVerifiedClaims_ExpiredToken_Throws() {
+        String token = jwtService.generateToken(Map.of(), user, -1_000);
+
+        assertThatThrownBy(() -> jwtService.parseVerifiedClaims(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void parseVerifiedClaims_TokenSignedWithOtherKey_Throws() {
+        JwtService otherService = new JwtService(null, null, SECRET_KEY.replace('3', '4'));
+        String token = otherService.generateAccessToken(user);
+
+        assertThatThrownBy(() -> jwtService.parseVerifiedClaims(token)).isInstanceOf(JwtException.class);
+    }
+}
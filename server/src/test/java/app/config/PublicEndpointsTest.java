@@ -0,0 +1,52 @@
+package app.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicEndpointsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/v1/auth/register",
+        "/api/v1/auth/register/",
+        "/api/v1/auth/authenticate",
+        "/api/v1/auth/refresh-token",
+        "/api/v1/auth/logout",
+        "/api/spec",
+        "/api/spec/swagger-config",
+        "/api/specification",
+        "/swagger-ui",
+        "/swagger-ui/index.html",
+        "/swagger-ui.html",
+        "/v3/api-docs/public",
+        "/actuator/health",
+        "/actuator/health/liveness",
+        "/actuator/prometheus",
+        "/actuator/env",
+        "/api/v1/users/1/stats",
+        "/",
+        ""
+    })
+    void matches_AgreesWithAntPathMatchers(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+
+        boolean expected = Arrays.stream(PublicEndpoints.patterns())
+            .anyMatch(pattern -> new AntPathRequestMatcher(pattern).matches(request));
+
+        assertThat(PublicEndpoints.matches(request)).isEqualTo(expected);
+    }
+
+    @Test
+    void matches_KeepsMetricsBehindAuthentication() {
+        assertThat(PublicEndpoints.matches("/actuator/health")).isTrue();
+        assertThat(PublicEndpoints.matches("/actuator/prometheus")).isFalse();
+    }
+}
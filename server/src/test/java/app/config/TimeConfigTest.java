@@ -0,0 +1,23 @@
+package app.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeConfigTest {
+
+    @Test
+    void postgresZone_KeepsRegionIds() {
+        assertThat(TimeConfig.postgresZone(ZoneId.of("Europe/Warsaw"))).isEqualTo("Europe/Warsaw");
+    }
+
+    @Test
+    void postgresZone_WritesOffsetsPosixStyle() {
+        assertThat(TimeConfig.postgresZone(ZoneOffset.UTC)).isEqualTo("UTC");
+        assertThat(TimeConfig.postgresZone(ZoneOffset.ofHours(2))).isEqualTo("UTC-02:00");
+        assertThat(TimeConfig.postgresZone(ZoneId.of("UTC-05:30"))).isEqualTo("UTC+05:30");
+    }
+}
@@ -0,0 +1,66 @@
+package app.friendship.entity;
+
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+class FriendshipRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Test
+    void findBetween_FindsPairInEitherOrder() {
+        entityManager.persistAndFlush(friendship(5, 3, FriendshipStatus.PENDING));
+
+        assertThat(friendshipRepository.findBetween(3, 5)).get()
+            .extracting(Friendship::getUserLowId, Friendship::getUserHighId)
+            .containsExactly(3, 5);
+        assertThat(friendshipRepository.findBetween(5, 3)).isPresent();
+        assertThat(friendshipRepository.findBetween(5, 4)).isEmpty();
+    }
+
+    @Test
+    void persist_RejectsSecondRowForSamePair() {
+        entityManager.persistAndFlush(friendship(1, 2, FriendshipStatus.PENDING));
+
+        assertThatThrownBy(() -> entityManager.persistAndFlush(friendship(2, 1, FriendshipStatus.PENDING)))
+            .isInstanceOf(PersistenceException.class);
+    }
+
+    @Test
+    void findBetween_ManyUsers_ReturnsRowsOnBothSidesOfUser() {
+        entityManager.persist(friendship(5, 2, FriendshipStatus.ACCEPTED));
+        entityManager.persist(friendship(5, 8, FriendshipStatus.PENDING));
+        entityManager.persist(friendship(9, 5, FriendshipStatus.ACCEPTED));
+        entityManager.persist(friendship(2, 8, FriendshipStatus.ACCEPTED));
+        entityManager.flush();
+
+        assertThat(friendshipRepository.findBetween(5, List.of(2, 8, 9, 7)))
+            .extracting(friendship -> friendship.getId().getSenderId() + "->" + friendship.getId().getReceiverId())
+            .containsExactlyInAnyOrder("5->2", "5->8", "9->5");
+        assertThat(friendshipRepository.findBetween(5, List.of())).isEmpty();
+    }
+
+    private Friendship friendship(Integer senderId, Integer receiverId, FriendshipStatus status) {
+        return Friendship.builder()
+            .id(FriendshipKey.builder().senderId(senderId).receiverId(receiverId).build())
+            .status(status)
+            .build();
+    }
+}
@@ -0,0 +1,222 @@
+package app.friendship.service;
+
+import app.friendship.entity.FriendshipRepository;
+import app.friendship.entity.FriendshipStatus;
+import app.friendship.entity.FriendshipView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FriendGraphTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    private FriendGraph friendGraph;
+
+    @BeforeEach
+    void setUp() {
+        friendGraph = new FriendGraph(friendshipRepository, TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void rebuild_LoadsAcceptedAndPendingEdges() {
+        when(friendshipRepository.streamAllViews()).thenReturn(Stream.of(
+            friendship(1, 2, FriendshipStatus.ACCEPTED),
+            friendship(3, 1, FriendshipStatus.ACCEPTED),
+            friendship(1, 4, FriendshipStatus.PENDING),
+            friendship(5, 1, FriendshipStatus.PENDING)
+        ));
+
+        friendGraph.rebuild();
+
+        assertThat(friendGraph.friends(1)).containsExactly(2, 3);
+        assertThat(friendGraph.friends(3)).containsExactly(1);
+        assertThat(friendGraph.outgoingRequests(1)).containsExactly(4);
+        assertThat(friendGraph.incomingRequests(1)).containsExactly(5);
+        assertThat(friendGraph.areFriends(2, 1)).isTrue();
+        assertThat(friendGraph.hasPendingRequest(4, 1)).isTrue();
+        assertThat(friendGraph.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    void rebuild_KeepsWritesMadeWhileLoading() {
+        friendGraph.addFriendship(7, 8);
+        when(friendshipRepository.streamAllViews()).thenReturn(Stream.of(
+            friendship(1, 2, FriendshipStatus.ACCEPTED),
+            friendship(7, 8, FriendshipStatus.ACCEPTED)
+        ).peek(friendship -> {
+            if (friendship.senderId() == 1) {
+                friendGraph.addFriendship(3, 4);
+                friendGraph.removeFriendship(7, 8);
+            }
+        }));
+
+        friendGraph.rebuild();
+
+        assertThat(friendGraph.areFriends(1, 2)).isTrue();
+        assertThat(friendGraph.areFriends(3, 4)).isTrue();
+        assertThat(friendGraph.areFriends(7, 8)).isFalse();
+        assertThat(friendGraph.edgeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addFriendship_ReplacesPendingRequestsInBothDirections() {
+        friendGraph.addRequest(1, 2);
+        friendGraph.addRequest(2, 1);
+
+        friendGraph.addFriendship(2, 1);
+
+        assertThat(friendGraph.hasPendingRequest(1, 2)).isFalse();
+        assertThat(friendGraph.areFriends(1, 2)).isTrue();
+        assertThat(friendGraph.edgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void suggestions_RankByMutualFriendsExcludingFriendsAndRequested() {
+        friendGraph.addFriendship(1, 2);
+        friendGraph.addFriendship(1, 3);
+        friendGraph.addFriendship(1, 4);
+        friendGraph.addFriendship(2, 5);
+        friendGraph.addFriendship(3, 5);
+        friendGraph.addFriendship(4, 5);
+        friendGraph.addFriendship(2, 6);
+        friendGraph.addFriendship(3, 6);
+        friendGraph.addFriendship(2, 7);
+        friendGraph.addFriendship(3, 7);
+        friendGraph.addFriendship(2, 3);
+        friendGraph.addRequest(1, 7);
+
+        assertThat(friendGraph.suggestions(1, 2)).containsExactly(
+            new MutualFriendsResponse(5, 3),
+            new MutualFriendsResponse(6, 2)
+        );
+        assertThat(friendGraph.suggestions(99, 5)).isEmpty();
+    }
+
+    @Test
+    void mutualFriendCounts_TooManyIds_IsRejected() {
+        friendGraph.addFriendship(1, 2);
+
+        assertThat(friendGraph.mutualFriendCounts(1, new int[FriendGraph.MAX_MUTUAL_COUNT_IDS]))
+            .hasSize(FriendGraph.MAX_MUTUAL_COUNT_IDS);
+        assertThatThrownBy(() -> friendGraph.mutualFriendCounts(1, new int[FriendGraph.MAX_MUTUAL_COUNT_IDS + 1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void randomGraph_SuggestionsAndMutualCountsMatchNaiveCount() {
+        Random random = new Random(11);
+        int users = 300;
+        for (int i = 0; i < 6_000; i++) {
+            int a = 1 + random.nextInt(users);
+            int b = 1 + random.nextInt(users);
+            if (a != b) {
+                friendGraph.addFriendship(a, b);
+            }
+        }
+
+        for (int userId = 1; userId <= users; userId += 17) {
+            Set<Integer> friends = toSet(friendGraph.friends(userId));
+            List<MutualFriendsResponse> expected = new ArrayList<>();
+            int[] others = new int[users];
+            for (int other = 1; other <= users; other++) {
+                others[other - 1] = other;
+                Set<Integer> mutual = toSet(friendGraph.friends(other));
+                mutual.retainAll(friends);
+                if (other != userId && !friends.contains(other) && !mutual.isEmpty()) {
+                    expected.add(new MutualFriendsResponse(other, mutual.size()));
+                }
+            }
+            expected.sort(Comparator.comparing(MutualFriendsResponse::mutualFriends).reversed()
+                .thenComparing(MutualFriendsResponse::userId));
+
+            assertThat(friendGraph.suggestions(userId, 10)).containsExactlyElementsOf(expected.subList(0, Math.min(10, expected.size())));
+
+            int[] counts = friendGraph.mutualFriendCounts(userId, others);
+            for (int other = 1; other <= users; other++) {
+                Set<Integer> mutual = toSet(friendGraph.friends(other));
+                mutual.retainAll(friends);
+                assertThat(counts[other - 1]).isEqualTo(mutual.size());
+            }
+        }
+    }
+
+    @Test
+    void randomWrites_MatchEdgeSets() {
+        Random random = new Random(7);
+        Set<Long> friendships = new HashSet<>();
+        Set<Long> requests = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int a = 1 + random.nextInt(60);
+            int b = 1 + random.nextInt(60);
+            if (a == b) {
+                continue;
+            }
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    friendGraph.addRequest(a, b);
+                    requests.add(directed(a, b));
+                }
+                case 1 -> {
+                    friendGraph.removeRequest(a, b);
+                    requests.remove(directed(a, b));
+                }
+                case 2 -> {
+                    friendGraph.addFriendship(a, b);
+                    requests.remove(directed(a, b));
+                    requests.remove(directed(b, a));
+                    friendships.add(pairKey(a, b));
+                }
+                default -> {
+                    friendGraph.removeFriendship(a, b);
+                    friendships.remove(pairKey(a, b));
+                }
+            }
+        }
+
+        for (int a = 1; a <= 60; a++) {
+            for (int b = 1; b <= 60; b++) {
+                assertThat(friendGraph.areFriends(a, b)).isEqualTo(a != b && friendships.contains(pairKey(a, b)));
+                assertThat(friendGraph.hasPendingRequest(a, b))
+                    .isEqualTo(requests.contains(directed(a, b)) || requests.contains(directed(b, a)));
+            }
+        }
+        assertThat(friendGraph.edgeCount()).isEqualTo(friendships.size() + requests.size());
+    }
+
+    private static Set<Integer> toSet(int[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static long directed(int senderId, int receiverId) {
+        return ((long) senderId << 32) | receiverId;
+    }
+
+    private static long pairKey(int userId1, int userId2) {
+        return ((long) Math.min(userId1, userId2) << 32) | Math.max(userId1, userId2);
+    }
+
+    private static FriendshipView friendship(Integer senderId, Integer receiverId, FriendshipStatus status) {
+        return new FriendshipView(senderId, receiverId, status);
+    }
+}
@@ -0,0 +1,236 @@
+package app.stats.service;
+
+import app.stats.entity.ActivityDailyStat;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The multi-pass {@link StatsService} implementation that {@link StatsEngine} replaced, kept as the
+ * reference for {@link StatsEngineTest}. {@code LocalDate.now()} is replaced with an explicit date.
+ */
+class MultiPassStatsReference {
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int FIRST_DAY_OF_WEEK = 1;
+    private final TimeFormatter timeFormatter;
+    private final LocalDate today;
+
+    MultiPassStatsReference(TimeFormatter timeFormatter, LocalDate today) {
+        this.timeFormatter = timeFormatter;
+        this.today = today;
+    }
+
+    StatsResponse getStats(List<ActivityDailyStat> dailyStats) {
+        return StatsResponse.builder()
+            .totalTimeThisWeek(timeFormatter.formatDuration(getTotalTimeThisWeek(dailyStats)))
+            .currentStreak(timeFormatter.formatPeriod(getCurrentStreak(dailyStats)))
+            .longestStreak(timeFormatter.formatPeriod(getLongestStreak(dailyStats)))
+            .mostActiveDay(getMostActiveDay(dailyStats))
+            .timeLoggedToday(timeFormatter.formatDuration(getTimeLoggedToday(dailyStats)))
+            .totalTimeLogged(timeFormatter.formatDuration(getTotalTimeLogged(dailyStats)))
+            .mostFrequentActivity(getMostFrequentActivity(dailyStats))
+            .topActivity(getTopActivity(dailyStats))
+            .activityBreakdown(getActivityBreakdown(dailyStats))
+            .weeklyStats(getWeeklyStats(dailyStats))
+            .monthlyStats(getMonthlyStats(dailyStats))
+            .totalTimeLastWeek(timeFormatter.formatDuration(getTotalTimeLastWeek(dailyStats)))
+            .build();
+    }
+
+    private Duration getTotalTimeLastWeek(List<ActivityDailyStat> activities) {
+        LocalDate startOfLastWeek = today.with(DayOfWeek.MONDAY).minusWeeks(1);
+        LocalDate endOfLastWeek = startOfLastWeek.plusDays(DAYS_IN_WEEK - 1);
+        return calculateTotalDuration(activities, startOfLastWeek, endOfLastWeek);
+    }
+
+    private List<MonthlyStat> getMonthlyStats(List<ActivityDailyStat> activities) {
+        LocalDate firstDayOfMonth = today.withDayOfMonth(1);
+        LocalDate lastDayOfMonth = firstDayOfMonth.withDayOfMonth(firstDayOfMonth.lengthOfMonth());
+
+        Map<String, Duration> weeklyDurations = activities.stream()
+            .filter(activity -> isWithinRange(activity.getDay(), firstDayOfMonth, lastDayOfMonth))
+            .collect(Collectors.groupingBy(
+                this::getWeekKey,
+                Collectors.reducing(Duration.ZERO, this::durationOf, Duration::plus)
+            ));
+
+        fillMissingWeeks(weeklyDurations, lastDayOfMonth);
+
+        List<MonthlyStat> monthlyStats = new ArrayList<>();
+        weeklyDurations.forEach((weekKey, duration) -> monthlyStats.add(new MonthlyStat(weekKey, timeFormatter.formatToHours(duration))));
+        return monthlyStats;
+    }
+
+    private List<WeeklyStat> getWeeklyStats(List<ActivityDailyStat> activities) {
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        List<WeeklyStat> weeklyStats = new ArrayList<>();
+
+        Arrays.stream(DayOfWeek.values())
+            .sorted(Comparator.comparingInt(DayOfWeek::getValue))
+            .forEach(day -> weeklyStats.add(new WeeklyStat(
+                timeFormatter.formatDayOfWeek(day),
+                calculateDailyDuration(activities, startOfWeek, day)
+            )));
+
+        return weeklyStats;
+    }
+
+    private List<ActivityBreakdown> getActivityBreakdown(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .collect(Collectors.groupingBy(
+                ActivityDailyStat::getTitle,
+                Collectors.reducing(Duration.ZERO, this::durationOf, Duration::plus)
+            ))
+            .entrySet()
+            .stream()
+            .map(entry -> new ActivityBreakdown(entry.getKey(), timeFormatter.formatToHours(entry.getValue())))
+            .toList();
+    }
+
+    private ActivityStat getTopActivity(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .collect(Collectors.groupingBy(
+                ActivityDailyStat::getTitle,
+                Collectors.reducing(Duration.ZERO, this::durationOf, Duration::plus)
+            ))
+            .entrySet()
+            .stream()
+            .max(Comparator.comparingLong(entry -> entry.getValue().toMinutes()))
+            .map(entry -> new ActivityStat(entry.getKey(), timeFormatter.formatDuration(entry.getValue())))
+            .orElse(null);
+    }
+
+    private ActivityStat getMostFrequentActivity(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .collect(Collectors.groupingBy(
+                ActivityDailyStat::getTitle,
+                Collectors.summingLong(ActivityDailyStat::getActivityCount)
+            ))
+            .entrySet()
+            .stream()
+            .max(Comparator.comparingLong(Map.Entry::getValue))
+            .map(entry -> {
+                Duration totalTime = activities.stream()
+                    .filter(activity -> activity.getTitle().equals(entry.getKey()))
+                    .map(this::durationOf)
+                    .reduce(Duration.ZERO, Duration::plus);
+                return new ActivityStat(entry.getKey(), timeFormatter.formatDuration(totalTime));
+            })
+            .orElse(null);
+    }
+
+    private Duration getTotalTimeLogged(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .map(this::durationOf)
+            .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    private Duration getTimeLoggedToday(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .filter(activity -> activity.getDay().equals(today))
+            .map(this::durationOf)
+            .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    private MostActiveDay getMostActiveDay(List<ActivityDailyStat> activities) {
+        Map<DayOfWeek, Duration> totalDurationByDay = activities.stream()
+            .collect(Collectors.groupingBy(
+                activity -> activity.getDay().getDayOfWeek(),
+                Collectors.reducing(Duration.ZERO, this::durationOf, Duration::plus)
+            ));
+
+        return totalDurationByDay.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(entry -> new MostActiveDay(
+                timeFormatter.formatDayOfWeek(entry.getKey()),
+                timeFormatter.formatDuration(entry.getValue())
+            ))
+            .orElse(null);
+    }
+
+    private Period getCurrentStreak(List<ActivityDailyStat> activities) {
+        Set<LocalDate> activityDays = extractActivityDays(activities);
+
+        LocalDate day = today;
+        int streakCount = 0;
+
+        while (activityDays.contains(day)) {
+            streakCount++;
+            day = day.minusDays(1);
+        }
+
+        return Period.ofDays(streakCount);
+    }
+
+    private Period getLongestStreak(List<ActivityDailyStat> activities) {
+        Set<LocalDate> activityDays = extractActivityDays(activities);
+
+        int longestStreak = 0;
+        int currentStreak = 0;
+        LocalDate previousDay = null;
+
+        for (LocalDate day : activityDays.stream().sorted().toList()) {
+            if (previousDay == null || day.equals(previousDay.plusDays(1))) {
+                currentStreak++;
+            } else {
+                longestStreak = Math.max(longestStreak, currentStreak);
+                currentStreak = 1;
+            }
+            previousDay = day;
+        }
+
+        return Period.ofDays(Math.max(longestStreak, currentStreak));
+    }
+
+    private Set<LocalDate> extractActivityDays(List<ActivityDailyStat> activities) {
+        return activities.stream()
+            .map(ActivityDailyStat::getDay)
+            .collect(Collectors.toSet());
+    }
+
+    private Duration getTotalTimeThisWeek(List<ActivityDailyStat> activities) {
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        return calculateTotalDuration(activities, startOfWeek.minusDays(FIRST_DAY_OF_WEEK), today);
+    }
+
+    private Duration calculateTotalDuration(List<ActivityDailyStat> activities, LocalDate startDate, LocalDate endDate) {
+        return activities.stream()
+            .filter(activity -> isWithinRange(activity.getDay(), startDate, endDate))
+            .map(this::durationOf)
+            .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    private Duration durationOf(ActivityDailyStat activity) {
+        return Duration.ofMinutes(activity.getTotalMinutes());
+    }
+
+    private boolean isWithinRange(LocalDate date, LocalDate start, LocalDate end) {
+        return !date.isBefore(start) && !date.isAfter(end);
+    }
+
+    private String getWeekKey(ActivityDailyStat activity) {
+        int dayOfMonth = activity.getDay().getDayOfMonth();
+        return "Week " + ((dayOfMonth - 1) / DAYS_IN_WEEK + 1);
+    }
+
+    private void fillMissingWeeks(Map<String, Duration> weeklyDurations, LocalDate lastDayOfMonth) {
+        int totalWeeks = (int) Math.ceil(lastDayOfMonth.getDayOfMonth() / (double) DAYS_IN_WEEK);
+        for (int i = 1; i <= totalWeeks; i++) {
+            weeklyDurations.putIfAbsent("Week " + i, Duration.ZERO);
+        }
+    }
+
+    private double calculateDailyDuration(List<ActivityDailyStat> activities, LocalDate startOfWeek, DayOfWeek day) {
+        Duration totalDuration = activities.stream()
+            .filter(activity -> isWithinRange(activity.getDay(), startOfWeek, startOfWeek.plusDays(DAYS_IN_WEEK - 1)) &&
+                activity.getDay().getDayOfWeek() == day)
+            .map(this::durationOf)
+            .reduce(Duration.ZERO, Duration::plus);
+
+        return timeFormatter.formatToHours(totalDuration);
+    }
+}
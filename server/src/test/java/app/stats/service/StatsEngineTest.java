@@ -0,0 +1,149 @@
+package app.stats.service;
+
+import app.activity.entity.Type;
+import app.stats.entity.ActivityDailyStat;
+import app.stats.entity.DailyStatView;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsEngineTest {
+
+    private static final List<String> TITLES = List.of(
+        "Running", "Reading", "Chess", "Swimming", "Guitar", "Cooking", "Spanish", "Yoga", "Cycling"
+    );
+
+    private static final List<LocalDate> TODAYS = List.of(
+        LocalDate.of(2024, 2, 29),
+        LocalDate.of(2024, 3, 1),
+        LocalDate.of(2024, 3, 31),
+        LocalDate.of(2024, 12, 30),
+        LocalDate.of(2025, 1, 5),
+        LocalDate.of(2025, 2, 28),
+        LocalDate.of(2025, 6, 16),
+        LocalDate.of(2025, 8, 7)
+    );
+
+    private final TimeFormatter timeFormatter = new TimeFormatter();
+
+    @Test
+    void toResponse_NoRows_MatchesMultiPassImplementation() {
+        for (LocalDate today : TODAYS) {
+            assertMatchesReference(today, List.of());
+        }
+    }
+
+    @Test
+    void toResponse_RandomRowsOrderedByDay_MatchesMultiPassImplementation() {
+        for (LocalDate today : TODAYS) {
+            for (long seed = 0; seed < 25; seed++) {
+                assertMatchesReference(today, randomRows(new Random(seed), today));
+            }
+        }
+    }
+
+    @Test
+    void toResponse_RandomRowsInAnyOrder_MatchesMultiPassImplementation() {
+        for (LocalDate today : TODAYS) {
+            for (long seed = 100; seed < 125; seed++) {
+                Random random = new Random(seed);
+                List<ActivityDailyStat> rows = randomRows(random, today);
+                Collections.shuffle(rows, random);
+                assertMatchesReference(today, rows);
+            }
+        }
+    }
+
+    @Test
+    void toResponse_StreakEndingToday_CountsBackFromToday() {
+        LocalDate today = LocalDate.of(2025, 6, 18);
+        List<ActivityDailyStat> rows = List.of(
+            row(today.minusDays(9), "Chess", 1, 10),
+            row(today.minusDays(8), "Chess", 1, 10),
+            row(today.minusDays(7), "Chess", 1, 10),
+            row(today.minusDays(6), "Chess", 1, 10),
+            row(today.minusDays(2), "Chess", 1, 10),
+            row(today.minusDays(1), "Chess", 1, 10),
+            row(today, "Chess", 1, 10)
+        );
+
+        StatsResponse response = responseOf(today, rows);
+
+        assertThat(response.currentStreak()).isEqualTo("3 days");
+        assertThat(response.longestStreak()).isEqualTo("4 days");
+    }
+
+    private void assertMatchesReference(LocalDate today, List<ActivityDailyStat> rows) {
+        StatsResponse expected = new MultiPassStatsReference(timeFormatter, today).getStats(rows);
+        StatsResponse actual = responseOf(today, rows);
+
+        // The reference emits weeks in HashMap order and picks an arbitrary day on a tie for the most
+        // active day, so only the contents are compared there.
+        assertThat(actual)
+            .usingRecursiveComparison()
+            .ignoringFields("mostActiveDay.dayOfWeek")
+            .ignoringCollectionOrderInFields("monthlyStats")
+            .isEqualTo(expected);
+        if (hasSingleMostActiveDay(rows)) {
+            assertThat(actual.mostActiveDay().dayOfWeek()).isEqualTo(expected.mostActiveDay().dayOfWeek());
+        }
+    }
+
+    private StatsResponse responseOf(LocalDate today, List<ActivityDailyStat> rows) {
+        StatsEngine engine = new StatsEngine(today);
+        rows.forEach(row -> engine.accept(
+            new DailyStatView(row.getDay(), row.getTitle(), row.getActivityCount(), row.getTotalMinutes())
+        ));
+        return engine.toResponse(timeFormatter);
+    }
+
+    private boolean hasSingleMostActiveDay(List<ActivityDailyStat> rows) {
+        long[] minutes = new long[DayOfWeek.values().length];
+        rows.forEach(row -> minutes[row.getDay().getDayOfWeek().ordinal()] += row.getTotalMinutes());
+        long max = Long.MIN_VALUE;
+        int occurrences = 0;
+        for (long value : minutes) {
+            if (value > max) {
+                max = value;
+                occurrences = 1;
+            } else if (value == max) {
+                occurrences++;
+            }
+        }
+        return occurrences == 1;
+    }
+
+    private List<ActivityDailyStat> randomRows(Random random, LocalDate today) {
+        List<ActivityDailyStat> rows = new ArrayList<>();
+        for (LocalDate day = today.minusDays(70); !day.isAfter(today.plusDays(3)); day = day.plusDays(1)) {
+            if (random.nextInt(3) == 0) {
+                continue;
+            }
+            List<String> titles = new ArrayList<>(TITLES);
+            Collections.shuffle(titles, random);
+            int titleCount = 1 + random.nextInt(3);
+            for (String title : titles.subList(0, titleCount)) {
+                rows.add(row(day, title, 1 + random.nextInt(4), random.nextInt(240)));
+            }
+        }
+        return rows;
+    }
+
+    private ActivityDailyStat row(LocalDate day, String title, long activityCount, long totalMinutes) {
+        return ActivityDailyStat.builder()
+            .userId(1)
+            .day(day)
+            .title(title)
+            .type(Type.CLOCK)
+            .activityCount(activityCount)
+            .totalMinutes(totalMinutes)
+            .build();
+    }
+}
@@ -0,0 +1,144 @@
+package app.stats.service;
+
+import app.activity.entity.Activity;
+import app.activity.entity.ActivityRepository;
+import app.activity.entity.ActivityView;
+import app.activity.entity.Type;
+import app.stats.entity.ActivityDailyStat;
+import app.stats.entity.ActivityDailyStatRepository;
+import app.user.entity.Role;
+import app.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsRollupServiceTest {
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    @Mock
+    private ActivityDailyStatRepository activityDailyStatRepository;
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    private StatsRollupService statsRollupService;
+
+    private User testUser;
+    private ZonedDateTime monday;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-03-05T12:00:00Z"), ZONE);
+        statsRollupService = new StatsRollupService(activityDailyStatRepository, activityRepository, clock);
+        testUser = User.builder()
+            .id(1)
+            .email("test@example.com")
+            .name("Test User")
+            .role(Role.USER)
+            .build();
+        monday = LocalDate.of(2024, 3, 4).atTime(18, 30).atZone(ZONE);
+    }
+
+    @Test
+    void recordActivity_UpsertsPositiveDeltaForActivityDay() {
+        Activity activity = activity(1L, "Running", Type.DUMBBELL, 30, monday);
+
+        statsRollupService.recordActivity(activity);
+
+        verify(activityDailyStatRepository).upsert(1, monday.toLocalDate(), "Running", "DUMBBELL", 1, 30);
+        verify(activityDailyStatRepository, never()).deleteEmptyDays(any(), any());
+    }
+
+    @Test
+    void recordActivity_UpsertsUntitledUntypedActivityWithNullKeyParts() {
+        Activity activity = activity(2L, null, null, 10, monday);
+
+        statsRollupService.recordActivity(activity);
+
+        verify(activityDailyStatRepository).upsert(1, monday.toLocalDate(), null, null, 1, 10);
+    }
+
+    @Test
+    void retractActivity_UpsertsNegativeDeltaAndDropsEmptyRows() {
+        Activity activity = activity(1L, "Running", Type.DUMBBELL, 45, monday);
+
+        statsRollupService.retractActivity(activity);
+
+        verify(activityDailyStatRepository).upsert(1, monday.toLocalDate(), "Running", "DUMBBELL", -1, -45);
+        verify(activityDailyStatRepository).deleteEmptyDays(1, monday.toLocalDate());
+    }
+
+    @Test
+    void retractActivity_ReloadedInUtc_UsesTheDayItWasRecordedOn() {
+        ZonedDateTime lateEvening = LocalDate.of(2024, 3, 4).atTime(22, 30).atZone(ZONE);
+        ZonedDateTime reloaded = lateEvening.withZoneSameInstant(ZoneOffset.UTC);
+
+        statsRollupService.recordActivity(activity(1L, "Running", Type.DUMBBELL, 30, lateEvening));
+        statsRollupService.retractActivity(activity(1L, "Running", Type.DUMBBELL, 30, reloaded));
+
+        LocalDate day = LocalDate.of(2024, 3, 4);
+        verify(activityDailyStatRepository).upsert(1, day, "Running", "DUMBBELL", 1, 30);
+        verify(activityDailyStatRepository).upsert(1, day, "Running", "DUMBBELL", -1, -30);
+        verify(activityDailyStatRepository).deleteEmptyDays(1, day);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_AggregatesActivitiesPerDayAndTitle() {
+        when(activityRepository.findViewsByUserId(1)).thenReturn(List.of(
+            new ActivityView(1L, "Running", Type.DUMBBELL, Duration.ofMinutes(30), monday),
+            new ActivityView(2L, "Running", Type.DUMBBELL, Duration.ofMinutes(15), monday.plusHours(2)),
+            new ActivityView(3L, "Reading", Type.BOOK, Duration.ofMinutes(60), monday),
+            new ActivityView(4L, "Running", Type.DUMBBELL, Duration.ofMinutes(20), monday.plusDays(1)),
+            // 23:30 in the clock's zone, read back from the database in UTC where it is already the next day
+            new ActivityView(5L, "Reading", Type.BOOK, Duration.ofMinutes(10),
+                monday.withHour(23).withZoneSameInstant(ZoneOffset.UTC))
+        ));
+
+        statsRollupService.rebuild(1);
+
+        ArgumentCaptor<Iterable<ActivityDailyStat>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(activityDailyStatRepository).deleteByUserId(1);
+        verify(activityDailyStatRepository).saveAll(captor.capture());
+
+        List<ActivityDailyStat> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+        assertThat(rows)
+            .extracting(ActivityDailyStat::getDay, ActivityDailyStat::getTitle,
+                ActivityDailyStat::getActivityCount, ActivityDailyStat::getTotalMinutes)
+            .containsExactlyInAnyOrder(
+                tuple(monday.toLocalDate(), "Running", 2L, 45L),
+                tuple(monday.toLocalDate(), "Reading", 2L, 70L),
+                tuple(monday.toLocalDate().plusDays(1), "Running", 1L, 20L)
+            );
+    }
+
+    private Activity activity(Long id, String title, Type type, long minutes, ZonedDateTime date) {
+        return Activity.builder()
+            .id(id)
+            .title(title)
+            .type(type)
+            .duration(Duration.ofMinutes(minutes))
+            .date(date)
+            .user(testUser)
+            .build();
+    }
+}
@@ -1,8 +1,9 @@
 package app.stats.service;
 
 import app.activity.entity.Activity;
-import app.activity.entity.ActivityRepository;
 import app.activity.entity.Type;
+import app.stats.entity.ActivityDailyStatRepository;
+import app.stats.entity.DailyStatView;
 import app.user.entity.Role;
 import app.user.entity.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +13,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,10 +31,13 @@ import static org.mockito.Mockito.*;
 class StatsServiceTest {
 
     @Mock
-    private ActivityRepository activityRepository;
+    private ActivityDailyStatRepository activityDailyStatRepository;
     
     @Mock
     private TimeFormatter timeFormatter;
+
+    @Mock
+    private Clock clock;
     
     @InjectMocks
     private StatsService statsService;
@@ -38,6 +47,9 @@ class StatsServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(clock.getZone()).thenReturn(ZoneId.systemDefault());
+        lenient().when(clock.instant()).thenAnswer(invocation -> Instant.now());
+
         testUser = User.builder()
             .id(1)
             .email("test@example.com")
@@ -68,7 +80,7 @@ class StatsServiceTest {
 
     @Test
     void getStats_ValidUserId_ReturnsCompleteStatsResponse() {
-        when(activityRepository.findByUserId(1)).thenReturn(testActivities);
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(testActivities));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("30 minutes");
         when(timeFormatter.formatPeriod(any())).thenReturn("1 day");
         when(timeFormatter.formatDayOfWeek(any(DayOfWeek.class))).thenReturn("Monday");
@@ -87,12 +99,12 @@ class StatsServiceTest {
         assertNotNull(result.monthlyStats());
         assertNotNull(result.totalTimeLastWeek());
         
-        verify(activityRepository).findByUserId(1);
+        verify(activityDailyStatRepository).findViewsByUserId(1);
     }
 
     @Test
     void getStats_EmptyActivities_ReturnsStatsWithNullValues() {
-        when(activityRepository.findByUserId(1)).thenReturn(List.of());
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of()));
         when(timeFormatter.formatDuration(Duration.ZERO)).thenReturn("0 minutes");
         when(timeFormatter.formatPeriod(any())).thenReturn("0 days");
         when(timeFormatter.formatToHours(Duration.ZERO)).thenReturn(0.0);
@@ -109,7 +121,7 @@ class StatsServiceTest {
         assertNull(result.topActivity());
         assertTrue(result.activityBreakdown().isEmpty());
         
-        verify(activityRepository).findByUserId(1);
+        verify(activityDailyStatRepository).findViewsByUserId(1);
     }
 
     @Test
@@ -122,7 +134,7 @@ class StatsServiceTest {
             .duration(Duration.ofMinutes(60)).date(todayTime).user(testUser)
             .build();
 
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(todayActivity));
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of(todayActivity)));
         when(timeFormatter.formatDuration(Duration.ofMinutes(60))).thenReturn("1 hour");
         when(timeFormatter.formatDuration(Duration.ZERO)).thenReturn("0 minutes");
         when(timeFormatter.formatPeriod(any())).thenReturn("1 day");
@@ -147,7 +159,7 @@ class StatsServiceTest {
             .duration(Duration.ofMinutes(45)).date(ZonedDateTime.now().minusDays(1)).user(testUser)
             .build();
 
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(running1, running2));
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of(running1, running2)));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("75 minutes");
         when(timeFormatter.formatPeriod(any())).thenReturn("2 days");
         when(timeFormatter.formatToHours(Duration.ofMinutes(75))).thenReturn(1.25);
@@ -178,7 +190,7 @@ class StatsServiceTest {
             .date(tuesday.atStartOfDay().atZone(java.time.ZoneId.systemDefault()))
             .user(testUser).build();
 
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(mondayActivity, tuesdayActivity));
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of(mondayActivity, tuesdayActivity)));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
         when(timeFormatter.formatPeriod(any())).thenReturn("test period");
         when(timeFormatter.formatDayOfWeek(DayOfWeek.MONDAY)).thenReturn("Monday");
@@ -222,7 +234,7 @@ class StatsServiceTest {
                 .date(dayBefore.atStartOfDay().atZone(java.time.ZoneId.systemDefault())).user(testUser).build()
         );
 
-        when(activityRepository.findByUserId(1)).thenReturn(consecutiveActivities);
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(consecutiveActivities));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
         when(timeFormatter.formatPeriod(any())).thenReturn("3 days");
         when(timeFormatter.formatToHours(any(Duration.class))).thenReturn(0.5);
@@ -244,7 +256,7 @@ class StatsServiceTest {
             .date(mondayDate.atStartOfDay().atZone(java.time.ZoneId.systemDefault()))
             .user(testUser).build();
 
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(heavyActivity));
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of(heavyActivity)));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
         when(timeFormatter.formatPeriod(any())).thenReturn("test period");
         when(timeFormatter.formatDayOfWeek(testDay)).thenReturn("Monday");
@@ -258,7 +270,7 @@ class StatsServiceTest {
 
     @Test
     void getStats_VerifiesTimeFormatterCalls() {
-        when(activityRepository.findByUserId(1)).thenReturn(testActivities);
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(testActivities));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("formatted duration");
         when(timeFormatter.formatPeriod(any())).thenReturn("formatted period");
         when(timeFormatter.formatToHours(any(Duration.class))).thenReturn(1.0);
@@ -298,7 +310,7 @@ class StatsServiceTest {
                 .date(weekAgoPlus2.atStartOfDay().atZone(java.time.ZoneId.systemDefault())).user(testUser).build()
         );
 
-        when(activityRepository.findByUserId(1)).thenReturn(streakActivities);
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(streakActivities));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
         when(timeFormatter.formatPeriod(any())).thenReturn("3 days");
         when(timeFormatter.formatToHours(any(Duration.class))).thenReturn(0.5);
@@ -322,7 +334,7 @@ class StatsServiceTest {
             .id(2L).title("Last Week").type(Type.DUMBBELL).duration(Duration.ofMinutes(90))
             .date(lastWeek.atStartOfDay().atZone(java.time.ZoneId.systemDefault())).user(testUser).build();
 
-        when(activityRepository.findByUserId(1)).thenReturn(List.of(thisWeekActivity, lastWeekActivity));
+        when(activityDailyStatRepository.findViewsByUserId(1)).thenReturn(dailyStatsOf(List.of(thisWeekActivity, lastWeekActivity)));
         when(timeFormatter.formatDuration(any(Duration.class))).thenReturn("test duration");
         when(timeFormatter.formatDuration(Duration.ofMinutes(90))).thenReturn("90 minutes");
         when(timeFormatter.formatPeriod(any())).thenReturn("test period");
@@ -333,4 +345,21 @@ class StatsServiceTest {
 
         assertEquals("90 minutes", result.totalTimeLastWeek());
     }
-} 
\ No newline at end of file
+
+    private List<DailyStatView> dailyStatsOf(List<Activity> activities) {
+        Map<String, DailyStatView> rollup = new LinkedHashMap<>();
+        activities.stream()
+            .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
+            .forEach(activity -> {
+                LocalDate day = activity.getDate().toLocalDate();
+                DailyStatView stat = new DailyStatView(day, activity.getTitle(), 1L, activity.getDuration().toMinutes());
+                rollup.merge(day + "|" + activity.getTitle(), stat, (existing, added) -> new DailyStatView(
+                    day,
+                    existing.title(),
+                    existing.activityCount() + added.activityCount(),
+                    existing.totalMinutes() + added.totalMinutes()
+                ));
+            });
+        return List.copyOf(rollup.values());
+    }
+}
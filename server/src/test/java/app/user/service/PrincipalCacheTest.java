@@ -0,0 +1,91 @@
+package app.user.service;
+
+import app.config.CacheConfig;
+import app.user.entity.Role;
+import app.user.entity.User;
+import app.user.entity.UserPrincipal;
+import app.user.entity.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Clock;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class PrincipalCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import({CacheConfig.class, UserService.class})
+    static class Config {
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        Clock clock() {
+            return Clock.systemDefaultZone();
+        }
+    }
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserNameIndex userNameIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void getPrincipal_RepeatedRequests_LoadPrincipalOnce() {
+        UserPrincipal principal = new UserPrincipal(7, "cached@example.com", Role.USER);
+        when(userRepository.findPrincipalById(7)).thenReturn(Optional.of(principal));
+
+        userService.getPrincipal(7);
+        userService.getPrincipal(7);
+
+        assertThat(userService.getPrincipal(7)).isSameAs(principal);
+        verify(userRepository, times(1)).findPrincipalById(7);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void updatePassword_EvictsCachedPrincipal() {
+        User user = User.builder().id(9).email("rehashed@example.com").name("Rehashed").role(Role.USER).build();
+        when(userRepository.findPrincipalById(9)).thenReturn(Optional.of(UserPrincipal.of(user)));
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.getPrincipal(9);
+        userService.updatePassword(user, "$2a$12$new");
+        userService.getPrincipal(9);
+
+        assertThat(user.getPassword()).isEqualTo("$2a$12$new");
+        verify(userRepository, times(2)).findPrincipalById(9);
+    }
+
+    @Test
+    void updateProfileName_EvictsCachedPrincipal() {
+        User user = User.builder().id(8).email("renamed@example.com").name("Before").role(Role.USER).build();
+        when(userRepository.findById(8)).thenReturn(Optional.of(user));
+        when(userRepository.findPrincipalById(8)).thenReturn(Optional.of(UserPrincipal.of(user)));
+
+        userService.getPrincipal(8);
+        userService.updateProfileName(8, "After");
+        userService.getPrincipal(8);
+
+        verify(userRepository, times(2)).findPrincipalById(8);
+    }
+}
@@ -0,0 +1,98 @@
+package app.user.service;
+
+import app.friendship.service.FriendshipService;
+import app.user.entity.User;
+import app.user.entity.UserImageView;
+import app.user.entity.UserNameView;
+import app.user.entity.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAutocompleteServiceTest {
+    private final FriendshipService friendshipService = mock(FriendshipService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserNameIndex userNameIndex = new UserNameIndex(userRepository, TransactionOperations.withoutTransaction());
+    private final UserAutocompleteService autocompleteService =
+        new UserAutocompleteService(userNameIndex, friendshipService, userRepository);
+
+    @BeforeEach
+    void setUp() {
+        userNameIndex.put(new UserNameView(1, "Viewer"));
+        userNameIndex.put(new UserNameView(2, "John"));
+        userNameIndex.put(new UserNameView(3, "joanna"));
+        userNameIndex.put(new UserNameView(4, "Jo"));
+        userNameIndex.put(new UserNameView(5, "Jonas"));
+        userNameIndex.put(new UserNameView(6, "Mark"));
+        userNameIndex.put(new UserNameView(7, "JOHANNES"));
+        when(friendshipService.getFriends(1)).thenReturn(List.of(6, 5, 3));
+        when(userRepository.findImageViewsByIdIn(anyCollection()))
+            .thenReturn(List.of(new UserImageView(3, "http://example.com/joanna.png")));
+    }
+
+    @Test
+    void autocomplete_RanksMatchingFriendsFirstThenOthersByName() {
+        List<UserAutocompleteResponse> results = autocompleteService.autocomplete(1, " JO", 10);
+
+        assertThat(results).extracting(UserAutocompleteResponse::id).containsExactly(3, 5, 4, 7, 2);
+        assertThat(results).extracting(UserAutocompleteResponse::friend).containsExactly(true, true, false, false, false);
+        assertThat(results.get(0).imageUrl()).isEqualTo("http://example.com/joanna.png");
+        assertThat(results.get(1).imageUrl()).isNull();
+        verify(userRepository).findImageViewsByIdIn(List.of(3, 5, 4, 7, 2));
+    }
+
+    @Test
+    void autocomplete_NoMatches_SkipsImageQuery() {
+        assertThat(autocompleteService.autocomplete(1, "xyz", 10)).isEmpty();
+        verify(userRepository, never()).findImageViewsByIdIn(any());
+    }
+
+    @Test
+    void autocomplete_LimitReached_StopsAfterFriends() {
+        assertThat(autocompleteService.autocomplete(1, "jo", 2))
+            .extracting(UserAutocompleteResponse::id)
+            .containsExactly(3, 5);
+        assertThat(autocompleteService.autocomplete(1, "jo", 3))
+            .extracting(UserAutocompleteResponse::id)
+            .containsExactly(3, 5, 4);
+    }
+
+    @Test
+    void autocomplete_RenamedUser_MovesToNewPrefixOnly() {
+        userNameIndex.put(User.builder().id(2).name("Zed").build());
+
+        assertThat(autocompleteService.autocomplete(1, "jo", 10))
+            .extracting(UserAutocompleteResponse::id)
+            .doesNotContain(2);
+        assertThat(autocompleteService.autocomplete(1, "z", 10))
+            .extracting(UserAutocompleteResponse::username)
+            .containsExactly("Zed");
+        assertThat(userNameIndex.size()).isEqualTo(7);
+    }
+
+    @Test
+    void autocomplete_EmptyPrefix_ExcludesViewer() {
+        assertThat(autocompleteService.autocomplete(1, "", 20))
+            .extracting(UserAutocompleteResponse::id)
+            .containsExactly(3, 5, 6, 4, 7, 2);
+    }
+
+    @Test
+    void autocomplete_InvalidLimit_ThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> autocompleteService.autocomplete(1, "jo", 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> autocompleteService.autocomplete(1, "jo", UserAutocompleteService.MAX_AUTOCOMPLETE_LIMIT + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package app.user.service;
+
+import app.activity.entity.Activity;
+import app.activity.entity.ActivityRepository;
+import app.activity.entity.Type;
+import app.challenge.entity.Challenge;
+import app.challenge.entity.ChallengeParticipants;
+import app.challenge.entity.ChallengeParticipantsRepository;
+import app.friendship.entity.Friendship;
+import app.friendship.entity.FriendshipKey;
+import app.friendship.entity.FriendshipRepository;
+import app.friendship.entity.FriendshipStatus;
+import app.stats.entity.ActivityDailyStat;
+import app.stats.entity.ActivityDailyStatRepository;
+import app.user.entity.Role;
+import app.user.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.flyway.enabled=false"
+})
+class UserExportServiceTest {
+
+    private static final ZonedDateTime DATE = ZonedDateTime.of(2024, 2, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ChallengeParticipantsRepository challengeParticipantsRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private ActivityDailyStatRepository activityDailyStatRepository;
+
+    private UserExportService userExportService;
+    private User user;
+    private Activity activity;
+    private Challenge challenge;
+    private User friend;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(activityRepository, challengeParticipantsRepository,
+            friendshipRepository, activityDailyStatRepository, new ObjectMapper());
+
+        user = entityManager.persist(User.builder().email("user@example.com").name("User").role(Role.USER).build());
+        friend = entityManager.persist(User.builder().email("friend@example.com").name("Friend").role(Role.USER).build());
+        User stranger = entityManager.persist(User.builder().email("other@example.com").name("Other").role(Role.USER).build());
+
+        activity = entityManager.persist(Activity.builder()
+            .title("Reading, fiction").type(Type.BOOK).duration(Duration.ofMinutes(45)).date(DATE).user(user).build());
+        entityManager.persist(Activity.builder()
+            .title("Running").type(Type.DUMBBELL).duration(Duration.ofMinutes(30)).date(DATE).user(stranger).build());
+
+        challenge = entityManager.persist(Challenge.builder()
+            .title("Push-ups").description("100 a day").goal(100).unit("reps").createdAt(DATE).build());
+        entityManager.persist(ChallengeParticipants.builder().challenge(challenge).user(user).progress(40).build());
+
+        entityManager.persist(Friendship.builder()
+            .id(FriendshipKey.builder().senderId(friend.getId()).receiverId(user.getId()).build())
+            .status(FriendshipStatus.ACCEPTED)
+            .build());
+        entityManager.persist(ActivityDailyStat.builder()
+            .userId(user.getId()).day(LocalDate.of(2024, 2, 3)).title("Reading, fiction").type(Type.BOOK)
+            .activityCount(1L).totalMinutes(45L).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_Ndjson_WritesOneTaggedLinePerRowOfEveryDataset() throws Exception {
+        String export = export(ExportFormat.NDJSON, null);
+
+        assertThat(export.lines()).containsExactly(
+            "{\"dataset\":\"activities\",\"id\":" + activity.getId() + ",\"title\":\"Reading, fiction\",\"type\":\"BOOK\","
+                + "\"durationMinutes\":45,\"date\":\"2024-02-03T08:00:00Z\"}",
+            "{\"dataset\":\"challenges\",\"challengeId\":" + challenge.getId() + ",\"title\":\"Push-ups\","
+                + "\"description\":\"100 a day\",\"goal\":100,\"unit\":\"reps\",\"progress\":40,\"createdAt\":\"2024-02-03T08:00:00Z\"}",
+            "{\"dataset\":\"friendships\",\"senderId\":" + friend.getId() + ",\"receiverId\":" + user.getId()
+                + ",\"status\":\"ACCEPTED\"}",
+            "{\"dataset\":\"dailyStats\",\"day\":\"2024-02-03\",\"title\":\"Reading, fiction\",\"activityCount\":1,\"totalMinutes\":45}"
+        );
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndQuotedRowsOfOneDataset() throws Exception {
+        String export = export(ExportFormat.CSV, ExportDataset.ACTIVITIES);
+
+        assertThat(export.lines()).containsExactly(
+            "id,title,type,durationMinutes,date",
+            activity.getId() + ",\"Reading, fiction\",BOOK,45,2024-02-03T08:00:00Z"
+        );
+    }
+
+    @Test
+    void export_CsvWithoutDataset_ThrowsException() {
+        assertThatThrownBy(() -> export(ExportFormat.CSV, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String export(ExportFormat format, ExportDataset dataset) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.export(user.getId(), format, dataset, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
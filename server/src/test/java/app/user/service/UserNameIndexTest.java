@@ -0,0 +1,81 @@
+package app.user.service;
+
+import app.user.entity.UserNameView;
+import app.user.entity.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserNameIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserNameIndex userNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        userNameIndex = new UserNameIndex(userRepository, TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void rebuild_ReplacesTheServedNames() {
+        userNameIndex.put(new UserNameView(9, "Gone"));
+        when(userRepository.streamNameViews()).thenReturn(Stream.of(
+            new UserNameView(1, "Anna"),
+            new UserNameView(2, "anton")
+        ));
+
+        userNameIndex.rebuild();
+
+        assertThat(userNameIndex.startingWith("an", 10, id -> false))
+            .extracting(UserNameView::id)
+            .containsExactly(1, 2);
+        assertThat(userNameIndex.get(9)).isNull();
+        assertThat(userNameIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_KeepsServingAndKeepsRenamesMadeWhileLoading() {
+        userNameIndex.put(new UserNameView(1, "Anna"));
+        when(userRepository.streamNameViews()).thenReturn(Stream.of(
+            new UserNameView(1, "Anna"),
+            new UserNameView(2, "Bob")
+        ).peek(view -> {
+            if (view.id() == 1) {
+                assertThat(userNameIndex.get(1)).isEqualTo(new UserNameView(1, "Anna"));
+                userNameIndex.put(new UserNameView(2, "Zed"));
+                userNameIndex.put(new UserNameView(3, "Carl"));
+            }
+        }));
+
+        userNameIndex.rebuild();
+
+        assertThat(userNameIndex.get(2)).isEqualTo(new UserNameView(2, "Zed"));
+        assertThat(userNameIndex.startingWith("b", 10, id -> false)).isEmpty();
+        assertThat(userNameIndex.startingWith("", 10, id -> false))
+            .extracting(UserNameView::name)
+            .containsExactly("Anna", "Carl", "Zed");
+    }
+
+    @Test
+    void rebuild_LoadFails_KeepsServingTheOldNames() {
+        userNameIndex.put(new UserNameView(1, "Anna"));
+        when(userRepository.streamNameViews()).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(userNameIndex::rebuild).isInstanceOf(IllegalStateException.class);
+        userNameIndex.put(new UserNameView(2, "Bob"));
+
+        assertThat(userNameIndex.size()).isEqualTo(2);
+    }
+}
@@ -9,7 +9,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.time.ZonedDateTime;
@@ -26,6 +25,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserNameIndex userNameIndex;
+
     @InjectMocks
     private UserService userService;
 
@@ -118,7 +120,7 @@ class UserServiceTest {
             .id(2).name("Jane Doe").imageUrl("http://example.com/jane.jpg").build();
 
         List<User> users = List.of(user1, user2);
-        when(userRepository.findByNameContainingIgnoreCase(eq("doe"), any(Sort.class)))
+        when(userRepository.searchByNameContainingNotStartingWith("%doe%", "doe%", UserService.DEFAULT_SEARCH_LIMIT, 0))
             .thenReturn(users);
 
         List<UserSearchResponse> result = userService.searchUsersSorted("doe");
@@ -127,19 +129,19 @@ class UserServiceTest {
         assertEquals(2, result.size());
         assertEquals("John Doe", result.get(0).username());
         assertEquals("Jane Doe", result.get(1).username());
-        verify(userRepository).findByNameContainingIgnoreCase(eq("doe"), any(Sort.class));
+        verify(userRepository).searchByNameContainingNotStartingWith("%doe%", "doe%", UserService.DEFAULT_SEARCH_LIMIT, 0);
     }
 
     @Test
     void searchUsersSorted_NoMatches_ReturnsEmptyList() {
-        when(userRepository.findByNameContainingIgnoreCase(eq("xyz"), any(Sort.class)))
+        when(userRepository.searchByNameContainingNotStartingWith("%xyz%", "xyz%", UserService.DEFAULT_SEARCH_LIMIT, 0))
             .thenReturn(List.of());
 
         List<UserSearchResponse> result = userService.searchUsersSorted("xyz");
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userRepository).findByNameContainingIgnoreCase(eq("xyz"), any(Sort.class));
+        verify(userRepository).searchByNameContainingNotStartingWith("%xyz%", "xyz%", UserService.DEFAULT_SEARCH_LIMIT, 0);
     }
 
     @Test
@@ -148,7 +150,7 @@ class UserServiceTest {
             () -> userService.searchUsersSorted(null));
 
         assertEquals("Search keyword cannot be empty", exception.getMessage());
-        verify(userRepository, never()).findByNameContainingIgnoreCase(anyString(), any(Sort.class));
+        verify(userRepository, never()).searchByNameContainingNotStartingWith(anyString(), anyString(), anyInt(), anyLong());
     }
 
     @Test
@@ -157,7 +159,7 @@ class UserServiceTest {
             () -> userService.searchUsersSorted(""));
 
         assertEquals("Search keyword cannot be empty", exception.getMessage());
-        verify(userRepository, never()).findByNameContainingIgnoreCase(anyString(), any(Sort.class));
+        verify(userRepository, never()).searchByNameContainingNotStartingWith(anyString(), anyString(), anyInt(), anyLong());
     }
 
     @Test
@@ -166,16 +168,17 @@ class UserServiceTest {
             () -> userService.searchUsersSorted("   "));
 
         assertEquals("Search keyword cannot be empty", exception.getMessage());
-        verify(userRepository, never()).findByNameContainingIgnoreCase(anyString(), any(Sort.class));
+        verify(userRepository, never()).searchByNameContainingNotStartingWith(anyString(), anyString(), anyInt(), anyLong());
     }
 
     @Test
     void searchUsersSorted_SingleCharacterKeyword_DoesNotThrowException() {
-        when(userRepository.findByNameContainingIgnoreCase(eq("a"), any(Sort.class)))
+        when(userRepository.searchByNamePrefix("a%", UserService.DEFAULT_SEARCH_LIMIT, 0))
             .thenReturn(List.of());
 
         assertDoesNotThrow(() -> userService.searchUsersSorted("a"));
-        verify(userRepository).findByNameContainingIgnoreCase(eq("a"), any(Sort.class));
+        verify(userRepository).searchByNamePrefix("a%", UserService.DEFAULT_SEARCH_LIMIT, 0);
+        verify(userRepository, never()).searchByNameContainingNotStartingWith(anyString(), anyString(), anyInt(), anyLong());
     }
 
     @Test
@@ -224,6 +227,7 @@ class UserServiceTest {
         verify(userRepository).save(argThat(user ->
             user.getName().equals("New Name")
         ));
+        verify(userNameIndex).put(argThat((User user) -> user.getName().equals("New Name")));
     }
 
     @Test
@@ -291,15 +295,60 @@ class UserServiceTest {
     }
 
     @Test
-    void searchUsersSorted_UsesSortByNameAscending() {
-        when(userRepository.findByNameContainingIgnoreCase(eq("test"), any(Sort.class)))
-            .thenReturn(List.of());
+    void searchUsersSorted_PageAndMixedCaseKeyword_QueriesLowerCasePatternsPastPrefixMatches() {
+        when(userRepository.countByNamePrefix("jo\\_n\\%%", 20)).thenReturn(5L);
+
+        userService.searchUsersSorted("  Jo_n%  ", 2, 10);
+
+        verify(userRepository).searchByNamePrefix("jo\\_n\\%%", 10, 20);
+        verify(userRepository).searchByNameContainingNotStartingWith("%jo\\_n\\%%", "jo\\_n\\%%", 10, 15);
+    }
+
+    @Test
+    void searchUsersSorted_PrefixMatchesFillPage_SkipsSubstringSearch() {
+        User john = User.builder().id(1).name("John").build();
+        User johanna = User.builder().id(2).name("Johanna").build();
+        when(userRepository.searchByNamePrefix("joh%", 2, 0)).thenReturn(List.of(john, johanna));
+
+        List<UserSearchResponse> result = userService.searchUsersSorted("joh", 0, 2);
+
+        assertEquals(List.of(1, 2), result.stream().map(UserSearchResponse::id).toList());
+        verify(userRepository, never()).countByNamePrefix(anyString(), anyLong());
+        verify(userRepository, never()).searchByNameContainingNotStartingWith(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void searchUsersSorted_PrefixMatchesEndOnPage_FillsRestWithSubstringMatches() {
+        User john = User.builder().id(1).name("John").build();
+        User bigJohn = User.builder().id(2).name("Big John").build();
+        when(userRepository.searchByNamePrefix("joh%", 2, 2)).thenReturn(List.of(john));
+        when(userRepository.searchByNameContainingNotStartingWith("%joh%", "joh%", 1, 0)).thenReturn(List.of(bigJohn));
+
+        List<UserSearchResponse> result = userService.searchUsersSorted("joh", 1, 2);
+
+        assertEquals(List.of(1, 2), result.stream().map(UserSearchResponse::id).toList());
+        verify(userRepository, never()).countByNamePrefix(anyString(), anyLong());
+    }
+
+    @Test
+    void searchUsersSorted_InvalidPageOrSize_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsersSorted("test", -1, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.searchUsersSorted("test", UserService.MAX_SEARCH_PAGE + 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsersSorted("test", 0, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> userService.searchUsersSorted("test", 0, UserService.MAX_SEARCH_LIMIT + 1));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsersSorted_LastPage_QueriesBoundedOffset() {
+        when(userRepository.searchByNamePrefix(anyString(), anyInt(), anyLong())).thenReturn(List.of());
 
-        userService.searchUsersSorted("test");
+        userService.searchUsersSorted("jo", UserService.MAX_SEARCH_PAGE, UserService.MAX_SEARCH_LIMIT);
 
-        verify(userRepository).findByNameContainingIgnoreCase(eq("test"), 
-            argThat(sort -> sort.getOrderFor("name") != null && 
-                           sort.getOrderFor("name").getDirection() == Sort.Direction.ASC));
+        verify(userRepository).searchByNamePrefix("jo%", UserService.MAX_SEARCH_LIMIT,
+            (long) UserService.MAX_SEARCH_PAGE * UserService.MAX_SEARCH_LIMIT);
     }
 
     @Test
@@ -324,7 +373,7 @@ class UserServiceTest {
             .imageUrl("http://example.com/test.jpg")
             .build();
 
-        when(userRepository.findByNameContainingIgnoreCase(eq("test"), any(Sort.class)))
+        when(userRepository.searchByNameContainingNotStartingWith("%test%", "test%", UserService.DEFAULT_SEARCH_LIMIT, 0))
             .thenReturn(List.of(user));
 
         List<UserSearchResponse> result = userService.searchUsersSorted("test");
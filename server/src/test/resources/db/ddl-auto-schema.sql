@@ -0,0 +1,14 @@
+-- Schema that spring.jpa.hibernate.ddl-auto=update created before the Flyway migrations, as generated by Hibernate.
+-- Production databases are on this schema when Flyway baselines them at V1. Do not edit.
+create sequence _user_seq start with 1 increment by 50;
+create sequence activities_seq start with 1 increment by 50;
+create sequence challenge_participants_seq start with 1 increment by 50;
+create sequence challenges_seq start with 1 increment by 50;
+create table _user (id integer not null, date_joined timestamp(6) with time zone, email varchar(255), image_url TEXT, name varchar(255), password varchar(255), role varchar(255) check (role in ('USER','ADMIN')), primary key (id));
+create table activities (duration numeric(21,0), user_id integer, date timestamp(6) with time zone, id bigint not null, title varchar(255), type varchar(255) check (type in ('BEER','BOOK','BRIEFCASE','BRUSH','CALENDAR','CAMERA','CAR','CHEF_HAT','CIGARETTE','CLAPPERBOARD','CLOCK','CODE','COFFEE','DUMBBELL','GAMEPAD','HEART','MUSIC','PARTY','PEN','PHONE','PIZZA','PLANE','SHOPPING','STAR','USERS')), primary key (id));
+create table challenge_participants (progress integer, user_id integer, challenge_id bigint, id bigint not null, primary key (id));
+create table challenges (goal integer, created_at timestamp(6) with time zone, id bigint not null, description varchar(255), title varchar(255), unit varchar(255), primary key (id));
+create table friendships (receiver_id integer not null, sender_id integer not null, status varchar(255) not null check (status in ('PENDING','ACCEPTED')), primary key (receiver_id, sender_id));
+alter table if exists activities add constraint FK7spmhd3l360jj6u91iviyxvcs foreign key (user_id) references _user;
+alter table if exists challenge_participants add constraint FK8yestlu1dvje3mnx36fmsbog9 foreign key (challenge_id) references challenges;
+alter table if exists challenge_participants add constraint FKtnxbyiywopu3c111hvf72omh7 foreign key (user_id) references _user;